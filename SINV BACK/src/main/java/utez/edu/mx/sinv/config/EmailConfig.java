@@ -5,8 +5,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 
 import java.util.Properties;
 
@@ -16,25 +18,54 @@ public class EmailConfig {
     private String email;
     @Value("${email.password}")
     private String password;
+    @Value("${email.host:smtp.gmail.com}")
+    private String host;
+    @Value("${email.port:587}")
+    private int port;
+    @Value("${email.starttls:true}")
+    private boolean starttls;
+    // Tiempos máximos para que un servidor SMTP lento no bloquee a los workers indefinidamente
+    @Value("${email.timeout:10000}")
+    private int timeout;
 
     private Properties getMailPropeties(){
         Properties properties = new Properties();
         properties.put("mail.smtp.auth", "true");
-        properties.put("mail.smtp.starttls.enable","true");
-        properties.put("mail.smtp.host", "smtp.gmail.com");
-        properties.put("mail.smtp.port", "587");
+        properties.put("mail.smtp.starttls.enable", String.valueOf(starttls));
+        properties.put("mail.smtp.host", host);
+        properties.put("mail.smtp.port", String.valueOf(port));
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(timeout));
+        properties.put("mail.smtp.timeout", String.valueOf(timeout));
+        properties.put("mail.smtp.writetimeout", String.valueOf(timeout));
         return properties;
     }
 
     @Bean
-    public JavaMailSender javaMailSender(){
+    public JavaMailSenderImpl javaMailSender(){
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
         mailSender.setJavaMailProperties(getMailPropeties());
+        mailSender.setHost(host);
+        mailSender.setPort(port);
         mailSender.setUsername(email);
         mailSender.setPassword(password);
         return mailSender;
     }
 
+    // Motor exclusivo para correos: las plantillas se parsean una vez y quedan en cache
+    @Bean
+    public TemplateEngine emailTemplateEngine(){
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
     @Bean
     public ResourceLoader resourceLoader(){
 
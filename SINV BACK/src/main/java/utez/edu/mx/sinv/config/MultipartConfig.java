@@ -0,0 +1,23 @@
+package utez.edu.mx.sinv.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+// Límite de tamaño para los archivos de importación (el default de Spring es 1MB)
+@Configuration
+public class MultipartConfig {
+    @Value("${articles.import.max-file-size:50MB}")
+    private DataSize maxFileSize;
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement() {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setMaxFileSize(maxFileSize);
+        factory.setMaxRequestSize(maxFileSize);
+        return factory.createMultipartConfig();
+    }
+}
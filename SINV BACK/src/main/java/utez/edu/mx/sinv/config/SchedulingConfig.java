@@ -0,0 +1,11 @@
+package utez.edu.mx.sinv.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita los @Scheduled (sondeo del outbox de correos y limpieza de tokens).
+// Con spring.threads.virtual.enabled=true Spring Boot ejecuta Tomcat, @Async y estas tareas en hilos virtuales
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,10 @@
+package utez.edu.mx.sinv.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// Valores por defecto del cache de segundo nivel; application.properties puede sobrescribirlos
+@Configuration
+@PropertySource("classpath:hibernate-cache.properties")
+public class SecondLevelCacheConfig {
+}
@@ -3,12 +3,24 @@ package utez.edu.mx.sinv.controllers.articles;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import utez.edu.mx.sinv.config.ApiResponse;
 import utez.edu.mx.sinv.controllers.articles.dto.ArticlesDto;
+import utez.edu.mx.sinv.services.articles.ArticlesExportService;
+import utez.edu.mx.sinv.services.articles.ArticlesImportService;
 import utez.edu.mx.sinv.services.articles.ArticlesService;
+import utez.edu.mx.sinv.utils.ETagUtils;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/articles")
@@ -17,21 +29,77 @@ import utez.edu.mx.sinv.services.articles.ArticlesService;
 @CrossOrigin(origins = {"*"})
 public class ArticlesController {
     private final ArticlesService service;
+    private final ArticlesImportService importService;
+    private final ArticlesExportService exportService;
 
-    public ArticlesController(ArticlesService service) {
+    public ArticlesController(ArticlesService service,
+                              ArticlesImportService importService,
+                              ArticlesExportService exportService) {
         this.service = service;
+        this.importService = importService;
+        this.exportService = exportService;
     }
 
     @GetMapping("/")
     @Operation(summary = "Traer todas las cedes", description = "Trae el listado de las cedes en el sistema")
-    public ResponseEntity<ApiResponse> findAll() {
-        return service.findAll();
+    public ResponseEntity<ApiResponse> findAll(WebRequest request) {
+        return ETagUtils.conditional(request, service.listETag(), service::findAll);
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Traer artículos paginados", description = "Obtiene una página de artículos filtrada por nombre, estado, categoría o almacén")
+    public ResponseEntity<ApiResponse> findPage(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long storageId,
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return service.findPage(name, status, categoryId, storageId, pageable);
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Recorrer artículos por cursor", description = "Obtiene artículos ordenados por id o por nombre a partir de un token de continuación")
+    public ResponseEntity<ApiResponse> findAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return service.findAfter(cursor, sort, size);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Buscar artículos", description = "Búsqueda por nombre y descripción con prefijos, coincidencias aproximadas y orden por relevancia")
+    public ResponseEntity<ApiResponse> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "true") boolean fuzzy
+    ) {
+        return service.search(q, limit, fuzzy);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar artículos", description = "Descarga todos los artículos con su categoría y almacenes en formato csv o ndjson")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format) {
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"articles.ndjson\"")
+                    .body(exportService::writeNdjson);
+        }
+        if (!"csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"articles.csv\"")
+                .body(exportService::writeCsv);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Traer un artículo por ID", description = "Obtiene un artículo específico por su ID")
-    public ResponseEntity<ApiResponse> findById(@PathVariable Long id) {
-        return service.findById(id);
+    public ResponseEntity<ApiResponse> findById(@PathVariable Long id, WebRequest request) {
+        return ETagUtils.conditional(request, service.detailETag(id), () -> service.findById(id));
     }
 
     @PostMapping("/")
@@ -40,6 +108,18 @@ public class ArticlesController {
         return service.save(dto);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Guardar artículos en lote", description = "Registra una lista de artículos y reporta los errores por fila")
+    public ResponseEntity<ApiResponse> saveAll(@RequestBody List<ArticlesDto> dtos) {
+        return importService.importArticles(dtos);
+    }
+
+    @PostMapping(value = "/import", consumes = "multipart/form-data")
+    @Operation(summary = "Importar artículos desde CSV", description = "Columnas: name, description, categoryId, storageIds (separados por ;), status. Con encabezado se toman por nombre, así que acepta el CSV de /export")
+    public ResponseEntity<ApiResponse> importCsv(@RequestParam("file") MultipartFile file) {
+        return importService.importCsv(file);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar un artículo", description = "Actualiza un artículo existente por su ID")
     public ResponseEntity<ApiResponse> update(
@@ -0,0 +1,15 @@
+package utez.edu.mx.sinv.controllers.articles.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import utez.edu.mx.sinv.models.articles.Articles;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ArticleCursorPageDto {
+    private List<Articles> items;
+    private String nextCursor;
+    private boolean hasNext;
+}
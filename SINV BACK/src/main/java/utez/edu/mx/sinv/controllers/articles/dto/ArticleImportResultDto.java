@@ -0,0 +1,15 @@
+package utez.edu.mx.sinv.controllers.articles.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ArticleImportResultDto {
+    private int received;
+    private int imported;
+    private int failed;
+    private List<ImportRowErrorDto> errors;
+}
@@ -11,6 +11,7 @@ public class ArticleResponseDto {
     private String name;
     private String description;
     private Boolean status;
+    private Long version;
     private CategorySimpleDto category;
     private Set<StorageSimpleDto> storages;
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package utez.edu.mx.sinv.controllers.articles.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ArticleSearchHitDto {
+    private ArticleResponseDto article;
+    private double score;
+}
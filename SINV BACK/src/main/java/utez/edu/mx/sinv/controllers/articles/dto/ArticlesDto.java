@@ -19,6 +19,8 @@ public class ArticlesDto {
     private Long categoryId;
     private Set<Long> storageIds = new HashSet<>(); // Cambiado a Set para muchos a muchos
     private Boolean status;
+    // Versión que el cliente leyó; si no coincide con la actual la actualización responde 409
+    private Long version;
 
     public Articles toEntity() {
         Articles article = new Articles();
@@ -43,6 +45,7 @@ public class ArticlesDto {
         dto.setName(article.getName());
         dto.setDescription(article.getDescription());
         dto.setStatus(article.getStatus());
+        dto.setVersion(article.getVersion());
 
         if (article.getCategory() != null) {
             dto.setCategoryId(article.getCategory().getId());
@@ -0,0 +1,12 @@
+package utez.edu.mx.sinv.controllers.articles.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportRowErrorDto {
+    private int row;
+    private String name;
+    private String message;
+}
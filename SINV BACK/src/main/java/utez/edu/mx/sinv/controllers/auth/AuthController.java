@@ -4,8 +4,11 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.controllers.auth.dto.RefreshDto;
 import utez.edu.mx.sinv.controllers.auth.dto.SignDto;
+import utez.edu.mx.sinv.security.jwt.JwtProvider;
 import utez.edu.mx.sinv.services.auth.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -20,9 +23,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @Controller
 public class AuthController {
     private final AuthService service;
+    private final JwtProvider jwtProvider;
 
-    public AuthController(AuthService service) {
+    public AuthController(AuthService service, JwtProvider jwtProvider) {
         this.service = service;
+        this.jwtProvider = jwtProvider;
     }
 
     @PostMapping("/signin")
@@ -30,4 +35,20 @@ public class AuthController {
     public ResponseEntity<ApiResponse> signIn(@RequestBody SignDto signDto){
         return service.signIn(signDto.getEmail(),signDto.getPassword());
     }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar sesión", description = "Entrega un nuevo access token y rota el refresh token")
+    public ResponseEntity<ApiResponse> refresh(@RequestBody RefreshDto refreshDto) {
+        return service.refresh(refreshDto.getRefreshToken());
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión", description = "Revoca la sesión del token actual y su refresh token")
+    public ResponseEntity<ApiResponse> logout(HttpServletRequest request,
+                                              @RequestBody(required = false) RefreshDto refreshDto) {
+        return service.logout(
+                jwtProvider.resolveToken(request),
+                refreshDto != null ? refreshDto.getRefreshToken() : null
+        );
+    }
 }
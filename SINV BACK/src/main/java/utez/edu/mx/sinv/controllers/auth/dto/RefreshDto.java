@@ -0,0 +1,10 @@
+package utez.edu.mx.sinv.controllers.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshDto {
+    @NotBlank
+    private String refreshToken;
+}
@@ -8,6 +8,7 @@ import lombok.Value;
 public class SignedDto {
     String token;
     String tokenType;
+    String refreshToken;
     Users user;
     Role roles;
 }
@@ -0,0 +1,28 @@
+package utez.edu.mx.sinv.controllers.cache;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.services.cache.CacheStatsService;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Controlador de Cache", description = "Controlador para consultar las estadísticas del cache de segundo nivel")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = {"*"})
+public class CacheController {
+    private final CacheStatsService service;
+
+    public CacheController(CacheStatsService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Estadísticas del cache", description = "Obtiene aciertos, fallos y escrituras de cada región del cache")
+    public ResponseEntity<ApiResponse> getStats() {
+        return service.getStats();
+    }
+}
@@ -6,9 +6,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import utez.edu.mx.sinv.config.ApiResponse;
 import utez.edu.mx.sinv.controllers.categories.dto.CategoriesDto;
 import utez.edu.mx.sinv.services.categories.CategoriesService;
+import utez.edu.mx.sinv.utils.ETagUtils;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -24,20 +26,20 @@ public class CategoriesController {
 
     @GetMapping("/")
     @Operation(summary = "Traer todas las categorías", description = "Trae el listado de las categorías en el sistema")
-    public ResponseEntity<ApiResponse> findAll() {
-        return service.findAll();
+    public ResponseEntity<ApiResponse> findAll(WebRequest request) {
+        return ETagUtils.conditional(request, service.listETag(), service::findAll);
     }
 
     @GetMapping("/active")
     @Operation(summary = "Traer categorías activas", description = "Obtiene el listado de categorías que están activas")
-    public ResponseEntity<ApiResponse> findActiveCategories() {
-        return service.findActiveCategories();
+    public ResponseEntity<ApiResponse> findActiveCategories(WebRequest request) {
+        return ETagUtils.conditional(request, service.listETag(), service::findActiveCategories);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Traer una categoría por ID", description = "Obtiene una categoría específica por su ID")
-    public ResponseEntity<ApiResponse> findById(@PathVariable Long id) {
-        return service.findById(id);
+    public ResponseEntity<ApiResponse> findById(@PathVariable Long id, WebRequest request) {
+        return ETagUtils.conditional(request, service.detailETag(id), () -> service.findById(id));
     }
 
     @PostMapping("/")
@@ -11,6 +11,8 @@ public class CategoriesDto {
     private Long id;
     private String name;
     private Boolean status;
+    // Versión que el cliente leyó; si no coincide con la actual la actualización responde 409
+    private Long version;
 
     public Categories toEntity() {
         Categories category = new Categories();
@@ -25,6 +27,7 @@ public class CategoriesDto {
         dto.setId(category.getId());
         dto.setName(category.getName());
         dto.setStatus(category.getStatus());
+        dto.setVersion(category.getVersion());
         return dto;
     }
 }
\ No newline at end of file
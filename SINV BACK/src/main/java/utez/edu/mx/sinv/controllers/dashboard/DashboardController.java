@@ -0,0 +1,28 @@
+package utez.edu.mx.sinv.controllers.dashboard;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.services.dashboard.DashboardService;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Controlador del Dashboard", description = "Controlador para obtener las estadísticas del panel de administración")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = {"*"})
+public class DashboardController {
+    private final DashboardService service;
+
+    public DashboardController(DashboardService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Estadísticas del dashboard", description = "Obtiene los totales y conteos agrupados del inventario")
+    public ResponseEntity<ApiResponse> getStats() {
+        return service.getStats();
+    }
+}
@@ -0,0 +1,23 @@
+package utez.edu.mx.sinv.controllers.dashboard.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import utez.edu.mx.sinv.models.articles.Articles;
+import utez.edu.mx.sinv.models.dashboard.NameCount;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class DashboardStatsDto {
+    private long totalArticles;
+    private long totalCategories;
+    private long totalStorages;
+    private long totalUsers;
+    private List<NameCount> articlesPerCategory;
+    private List<NameCount> storagesPerCategory;
+    private List<NameCount> usersPerRole;
+    private List<Articles> recentArticles;
+    private long emptyStorages;
+    private long assignedStorages;
+}
@@ -0,0 +1,28 @@
+package utez.edu.mx.sinv.controllers.maintenance;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.services.users.PasswordResetTokenCleanupJob;
+
+@RestController
+@RequestMapping("/api/maintenance")
+@Tag(name = "Controlador de Mantenimiento", description = "Controlador para consultar las tareas programadas")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = {"*"})
+public class MaintenanceController {
+    private final PasswordResetTokenCleanupJob cleanupJob;
+
+    public MaintenanceController(PasswordResetTokenCleanupJob cleanupJob) {
+        this.cleanupJob = cleanupJob;
+    }
+
+    @GetMapping("/token-cleanup")
+    @Operation(summary = "Estado de la limpieza de tokens", description = "Obtiene las estadísticas de la última limpieza de tokens de restablecimiento")
+    public ResponseEntity<ApiResponse> getTokenCleanupStats() {
+        return cleanupJob.getStats();
+    }
+}
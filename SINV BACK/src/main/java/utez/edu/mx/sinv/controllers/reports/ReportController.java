@@ -0,0 +1,56 @@
+package utez.edu.mx.sinv.controllers.reports;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import utez.edu.mx.sinv.services.reports.ReportService;
+
+import java.util.concurrent.Callable;
+
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Controlador de Reportes", description = "Reportes de inventario en PDF y XLSX")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = {"*"})
+public class ReportController {
+    private static final MediaType XLSX =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final ReportService service;
+
+    public ReportController(ReportService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/inventory")
+    @Operation(summary = "Reporte de inventario", description = "Genera el inventario agrupado por almacén (storage), categoría (category) o responsable (responsible) en pdf o xlsx")
+    public ResponseEntity<StreamingResponseBody> inventory(
+            @RequestParam(defaultValue = "storage") String groupBy,
+            @RequestParam(defaultValue = "pdf") String format,
+            HttpServletRequest request
+    ) {
+        ReportService.RenderedReport body = service.renderInventory(groupBy, format);
+        // Se llama al terminar la petición asíncrona por cualquier motivo, aunque el cuerpo no se haya escrito
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(body, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                body.release();
+            }
+        });
+        boolean xlsx = "xlsx".equalsIgnoreCase(format);
+        String filename = "inventario-" + groupBy.toLowerCase() + (xlsx ? ".xlsx" : ".pdf");
+        return ResponseEntity.ok()
+                .contentType(xlsx ? XLSX : MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
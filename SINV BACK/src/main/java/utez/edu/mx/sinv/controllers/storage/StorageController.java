@@ -3,12 +3,16 @@ package utez.edu.mx.sinv.controllers.storage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import utez.edu.mx.sinv.config.ApiResponse;
 import utez.edu.mx.sinv.controllers.storage.dto.StorageDto;
 import utez.edu.mx.sinv.services.storage.StorageService;
+import utez.edu.mx.sinv.utils.ETagUtils;
 
 @RestController
 @RequestMapping("/api/storage")
@@ -24,14 +28,26 @@ public class StorageController {
 
     @GetMapping("/")
     @Operation(summary = "Traer todos los almacenes", description = "Obtiene el listado de todos los almacenes en el sistema")
-    public ResponseEntity<ApiResponse> findAll() {
-        return service.findAll();
+    public ResponseEntity<ApiResponse> findAll(WebRequest request) {
+        return ETagUtils.conditional(request, service.listETag(), service::findAll);
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Traer almacenes paginados", description = "Obtiene una página de almacenes filtrada por identificador, estado, categoría o asignación")
+    public ResponseEntity<ApiResponse> findPage(
+            @RequestParam(required = false) String identifier,
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Boolean assigned,
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return service.findPage(identifier, status, categoryId, assigned, pageable);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Traer un almacén por ID", description = "Obtiene un almacén específico por su ID")
-    public ResponseEntity<ApiResponse> findById(@PathVariable Long id) {
-        return service.findById(id);
+    public ResponseEntity<ApiResponse> findById(@PathVariable Long id, WebRequest request) {
+        return ETagUtils.conditional(request, service.detailETag(id), () -> service.findById(id));
     }
 
     @PostMapping("/")
@@ -63,9 +79,10 @@ public class StorageController {
     @GetMapping("/responsible/{userId}")
     @Operation(summary = "Traer almacenes por responsable", description = "Obtiene los almacenes asignados a un usuario específico")
     public ResponseEntity<ApiResponse> findByResponsible(
-            @PathVariable Long userId
+            @PathVariable Long userId,
+            WebRequest request
     ) {
-        return service.findByResponsible(userId);
+        return ETagUtils.conditional(request, service.responsibleETag(userId), () -> service.findByResponsible(userId));
     }
 
     @GetMapping("/category/{categoryId}")
@@ -15,6 +15,8 @@ public class StorageDto {
     private Long categoryId;
     private Long responsibleId;
     private Boolean status;
+    // Versión que el cliente leyó; si no coincide con la actual la actualización responde 409
+    private Long version;
 
     public Storage toEntity() {
         Storage storage = new Storage();
@@ -42,6 +44,7 @@ public class StorageDto {
         dto.setId(storage.getId());
         dto.setIdentifier(storage.getIdentifier());
         dto.setStatus(storage.getStatus());
+        dto.setVersion(storage.getVersion());
 
         if (storage.getCategory() != null) {
             dto.setCategoryId(storage.getCategory().getId());
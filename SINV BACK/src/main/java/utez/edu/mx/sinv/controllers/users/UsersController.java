@@ -3,14 +3,14 @@ package utez.edu.mx.sinv.controllers.users;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import jakarta.mail.MessagingException;
 import utez.edu.mx.sinv.config.ApiResponse;
 import utez.edu.mx.sinv.controllers.users.dto.UsersDto;
 import utez.edu.mx.sinv.models.user.Users;
-import utez.edu.mx.sinv.services.EmailService;
 import utez.edu.mx.sinv.services.users.UserService;
 import java.util.HashMap;
 import java.util.Map;
@@ -30,11 +30,9 @@ public class UsersController {
     private static final String EMAIL_SENT_MSG = "Se ha enviado un correo electrónico con instrucciones para restablecer la contraseña.";
 
     private final UserService service;
-    private final EmailService emailService;
 
-    public UsersController(UserService service, EmailService emailService) {
+    public UsersController(UserService service) {
         this.service = service;
-        this.emailService = emailService;
     }
 
     @GetMapping("/")
@@ -43,6 +41,17 @@ public class UsersController {
         return service.getAll();
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Obtener usuarios paginados", description = "Obtiene una página de usuarios filtrada por texto, estado o rol")
+    public ResponseEntity<ApiResponse> getPage(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(required = false) String role,
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return service.getPage(search, status, role, pageable);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener usuario por ID", description = "Obtiene un usuario específico por su ID")
     public ResponseEntity<ApiResponse> getUserById(@PathVariable Long id) {
@@ -107,7 +116,7 @@ public class UsersController {
 
     @PostMapping("/request-password-reset")
     @Operation(summary = "Solicitar restablecimiento de contraseña", description = "Solicita el restablecimiento de contraseña para un usuario por correo electrónico")
-    public ResponseEntity<Map<String, Object>> requestPasswordReset(@RequestBody Map<String, String> body) throws MessagingException {
+    public ResponseEntity<Map<String, Object>> requestPasswordReset(@RequestBody Map<String, String> body) {
         String email = body.get("email");
         Optional<Users> userOptional = service.findByEmail(email);
 
@@ -118,8 +127,8 @@ public class UsersController {
         }
 
         Users user = userOptional.get();
-        String token = service.generatePasswordResetToken(user.getId());
-        emailService.sendPasswordResetEmail(user.getEmail(), token);
+        // El correo se envía en segundo plano desde el outbox
+        service.generatePasswordResetToken(user.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put(MESSAGE_KEY, EMAIL_SENT_MSG);
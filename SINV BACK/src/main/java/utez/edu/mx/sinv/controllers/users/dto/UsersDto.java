@@ -16,6 +16,8 @@ public class UsersDto {
     private String password;
     private Boolean status;
     private Long roleId;
+    // Versión que el cliente leyó; si no coincide con la actual la actualización responde 409
+    private Long version;
 
     public Users toEntity() {
         Users user = new Users();
@@ -25,6 +27,7 @@ public class UsersDto {
         user.setEmail(this.email);
         user.setPassword(this.password);
         user.setStatus(this.status != null ? this.status : true);
+        user.setVersion(this.version);
 
         if (this.roleId != null) {
             Role role = new Role();
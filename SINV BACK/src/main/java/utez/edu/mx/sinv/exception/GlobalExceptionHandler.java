@@ -1,10 +1,14 @@
 package utez.edu.mx.sinv.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.NoHandlerFoundException;
+import utez.edu.mx.sinv.utils.ConflictUtils;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -26,6 +30,17 @@ public class GlobalExceptionHandler {
         public ConflictException(String message) { super(message); }
     }
 
+    public static class TooManyRequestsException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public TooManyRequestsException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
+
     public static class ServiceUnavailableException extends RuntimeException {
         public ServiceUnavailableException(String message) { super(message); }
     }
@@ -82,6 +97,32 @@ public class GlobalExceptionHandler {
                 .body("Error 409: Conflicto en la solicitud - " + ex.getMessage());
     }
 
+    // 409 - Conflict: otra transacción modificó la misma fila (detectado por @Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Error 409: Conflicto en la solicitud - El recurso fue modificado por otro usuario");
+    }
+
+    // 409 si una restricción única rechazó la escritura; foráneas, nulos y longitudes son datos inválidos (400)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrity(DataIntegrityViolationException ex) {
+        if (ConflictUtils.isUniqueViolation(ex)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error 409: Conflicto en la solicitud - Los datos entran en conflicto con un registro existente");
+        }
+        return ResponseEntity.badRequest()
+                .body("Error 400: Solicitud incorrecta - Los datos no cumplen las restricciones del registro");
+    }
+
+    // 429 - Too Many Requests
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequests(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body("Error 429: Demasiadas solicitudes - " + ex.getMessage());
+    }
+
     // 500 - Internal Server Error
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleInternalError(Exception ex) {
@@ -0,0 +1,47 @@
+package utez.edu.mx.sinv.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+// Expone las estadísticas de Hibernate (requiere hibernate.generate_statistics=true)
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "sinv.hibernate.statements.prepared", Statistics::getPrepareStatementCount);
+        counter(registry, "sinv.hibernate.queries.executed", Statistics::getQueryExecutionCount);
+        counter(registry, "sinv.hibernate.entities.loaded", Statistics::getEntityLoadCount);
+        counter(registry, "sinv.hibernate.entities.fetched", Statistics::getEntityFetchCount);
+        counter(registry, "sinv.hibernate.collections.fetched", Statistics::getCollectionFetchCount);
+        counter(registry, "sinv.hibernate.transactions", Statistics::getTransactionCount);
+
+        counter(registry, "sinv.hibernate.second-level-cache.hits", Statistics::getSecondLevelCacheHitCount);
+        counter(registry, "sinv.hibernate.second-level-cache.misses", Statistics::getSecondLevelCacheMissCount);
+        counter(registry, "sinv.hibernate.second-level-cache.puts", Statistics::getSecondLevelCachePutCount);
+        counter(registry, "sinv.hibernate.query-cache.hits", Statistics::getQueryCacheHitCount);
+        counter(registry, "sinv.hibernate.query-cache.misses", Statistics::getQueryCacheMissCount);
+
+        Gauge.builder("sinv.hibernate.queries.slowest", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Tiempo de la consulta más lenta en ms")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder(name, statistics, value).register(registry);
+    }
+}
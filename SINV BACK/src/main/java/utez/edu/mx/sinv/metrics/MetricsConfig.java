@@ -0,0 +1,17 @@
+package utez.edu.mx.sinv.metrics;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// Valores por defecto de Actuator/Micrometer; application.properties puede sobrescribirlos
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        return properties -> properties.put("hibernate.session_factory.statement_inspector", new QueryCountInspector());
+    }
+}
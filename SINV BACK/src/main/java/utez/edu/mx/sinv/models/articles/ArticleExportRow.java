@@ -0,0 +1,14 @@
+package utez.edu.mx.sinv.models.articles;
+
+// Fila plana para la exportación: un artículo aparece una vez por cada almacén asignado
+public record ArticleExportRow(
+        Long id,
+        String name,
+        String description,
+        Boolean status,
+        Long categoryId,
+        String categoryName,
+        Long storageId,
+        String storageIdentifier
+) {
+}
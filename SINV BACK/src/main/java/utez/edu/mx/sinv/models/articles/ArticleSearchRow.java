@@ -0,0 +1,9 @@
+package utez.edu.mx.sinv.models.articles;
+
+// Campos que alimentan el índice de búsqueda en memoria
+public record ArticleSearchRow(
+        Long id,
+        String name,
+        String description
+) {
+}
@@ -0,0 +1,10 @@
+package utez.edu.mx.sinv.models.articles;
+
+// Almacén de un artículo, para completar los resúmenes sin cargar la colección perezosa
+public record ArticleStorageRow(
+        Long articleId,
+        Long storageId,
+        String identifier,
+        Boolean status
+) {
+}
@@ -0,0 +1,14 @@
+package utez.edu.mx.sinv.models.articles;
+
+// Proyección de solo lectura de un artículo con los datos básicos de su categoría
+public record ArticleSummary(
+        Long id,
+        String name,
+        String description,
+        Boolean status,
+        Long version,
+        Long categoryId,
+        String categoryName,
+        Boolean categoryStatus
+) {
+}
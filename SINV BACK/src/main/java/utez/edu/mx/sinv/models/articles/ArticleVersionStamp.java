@@ -0,0 +1,18 @@
+package utez.edu.mx.sinv.models.articles;
+
+import utez.edu.mx.sinv.utils.VersionStamp;
+
+// Validador del detalle de un artículo: el artículo y su categoría van en partes separadas
+public record ArticleVersionStamp(
+        Long articleVersion,
+        Long articleId,
+        Long categoryVersion,
+        Long categoryId
+) {
+    public VersionStamp[] parts() {
+        return new VersionStamp[]{
+                new VersionStamp(1L, articleVersion, articleId),
+                new VersionStamp(1L, categoryVersion, categoryId)
+        };
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import utez.edu.mx.sinv.models.categories.Categories;
 import utez.edu.mx.sinv.models.storage.Storage;
 
@@ -11,16 +13,28 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "articles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "articles", indexes = {
+        @Index(name = "idx_articles_name_id", columnList = "name, id"),
+        // Los nombres son únicos; el índice reemplaza la consulta previa de existencia
+        @Index(name = "uk_articles_name", columnList = "name", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Articles {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Se incrementa en cada UPDATE; sirve para el bloqueo optimista y para calcular los ETag
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0", nullable = false)
+    private Long version;
+
     @Column(length = 100, nullable = false)
     private String name;
 
@@ -30,11 +44,13 @@ public class Articles {
     @Column(columnDefinition = "BOOL DEFAULT true")
     private Boolean status = true;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Categories category;
 
+    // Cachea las filas de storage_has_articles de cada artículo; Hibernate la invalida al modificar esta colección
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnore
     @JoinTable(
             name = "storage_has_articles",
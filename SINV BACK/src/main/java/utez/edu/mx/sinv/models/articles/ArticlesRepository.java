@@ -1,21 +1,60 @@
 package utez.edu.mx.sinv.models.articles;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import utez.edu.mx.sinv.models.dashboard.NameCount;
 import utez.edu.mx.sinv.models.storage.Storage;
+import utez.edu.mx.sinv.utils.VersionStamp;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
-public interface ArticlesRepository extends JpaRepository<Articles, Long> {
+public interface ArticlesRepository extends JpaRepository<Articles, Long>, JpaSpecificationExecutor<Articles> {
+    // Los listados traen la categoría en el mismo SELECT (JOIN) en lugar de un query por fila
+    @EntityGraph(attributePaths = "category")
     Optional<Articles> findById(Long id);
 
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Articles> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Articles> findAll(Specification<Articles> spec, Pageable pageable);
+
     // Reemplazado por consulta alternativa
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT a FROM Articles a JOIN a.storages s WHERE s.id = :storageId")
     List<Articles> findByStorageId(@Param("storageId") Long storageId);
 
+    // Proyección plana de los artículos de un almacén, sin materializar entidades.
+    // Va al cache de consultas: se invalida cuando cambian articles, categories o storage_has_articles
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.ArticleSummary(" +
+            "a.id, a.name, a.description, a.status, a.version, c.id, c.name, c.status) " +
+            "FROM Articles a JOIN a.storages s JOIN a.category c " +
+            "WHERE s.id = :storageId ORDER BY a.id")
+    List<ArticleSummary> findSummariesByStorageId(@Param("storageId") Long storageId);
+
+    // Todos los almacenes de los artículos de un almacén, en un segundo SELECT cacheable
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.ArticleStorageRow(a.id, other.id, other.identifier, other.status) " +
+            "FROM Articles a JOIN a.storages s JOIN a.storages other " +
+            "WHERE s.id = :storageId")
+    List<ArticleStorageRow> findStorageRowsByStorageId(@Param("storageId") Long storageId);
+
     List<Articles> findByCategoryId(Long categoryId);
 
     @Query("SELECT a FROM Articles a JOIN a.storages s WHERE s.id = :storageId AND a.category.id = :categoryId")
@@ -24,9 +63,87 @@ public interface ArticlesRepository extends JpaRepository<Articles, Long> {
             @Param("categoryId") Long categoryId
     );
 
+    // Paginación por llave (keyset): cada página continúa después del último registro visto
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT a FROM Articles a WHERE a.id > :lastId ORDER BY a.id")
+    List<Articles> findNextById(@Param("lastId") Long lastId, Limit limit);
+
+    // Recorre el índice (name, id); la primera condición permite un escaneo por rango
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT a FROM Articles a " +
+            "WHERE a.name >= :lastName AND (a.name > :lastName OR a.id > :lastId) " +
+            "ORDER BY a.name, a.id")
+    List<Articles> findNextByName(@Param("lastName") String lastName, @Param("lastId") Long lastId, Limit limit);
+
+    // Carga del índice de búsqueda por páginas de llave, sin materializar entidades
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.ArticleSearchRow(a.id, a.name, a.description) " +
+            "FROM Articles a WHERE a.id > :lastId ORDER BY a.id")
+    List<ArticleSearchRow> findSearchRowsAfter(@Param("lastId") Long lastId, Limit limit);
+
+    // Datos de los resultados de una búsqueda, ya ordenados por relevancia en memoria
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.ArticleSummary(" +
+            "a.id, a.name, a.description, a.status, a.version, c.id, c.name, c.status) " +
+            "FROM Articles a JOIN a.category c WHERE a.id IN :ids")
+    List<ArticleSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.ArticleStorageRow(a.id, s.id, s.identifier, s.status) " +
+            "FROM Articles a JOIN a.storages s WHERE a.id IN :ids")
+    List<ArticleStorageRow> findStorageRowsByArticleIds(@Param("ids") Collection<Long> ids);
+
+    // Páginas para los reportes de inventario, continuando después de la última pareja (grupo, artículo)
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.InventoryReportRow(" +
+            "s.id, s.identifier, a.id, a.name, a.description, a.status, c.name, s.identifier) " +
+            "FROM Articles a JOIN a.storages s JOIN a.category c " +
+            "WHERE s.id > :groupId OR (s.id = :groupId AND a.id > :articleId) " +
+            "ORDER BY s.id, a.id")
+    List<InventoryReportRow> findReportRowsByStorage(@Param("groupId") Long groupId,
+                                                     @Param("articleId") Long articleId,
+                                                     Limit limit);
+
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.InventoryReportRow(" +
+            "c.id, c.name, a.id, a.name, a.description, a.status, c.name) " +
+            "FROM Articles a JOIN a.category c " +
+            "WHERE c.id > :groupId OR (c.id = :groupId AND a.id > :articleId) " +
+            "ORDER BY c.id, a.id")
+    List<InventoryReportRow> findReportRowsByCategory(@Param("groupId") Long groupId,
+                                                      @Param("articleId") Long articleId,
+                                                      Limit limit);
+
+    // Cada responsable tiene a lo sumo un almacén, así que (responsable, artículo) no se repite
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.InventoryReportRow(" +
+            "r.id, r.fullName, a.id, a.name, a.description, a.status, c.name, s.identifier) " +
+            "FROM Articles a JOIN a.storages s JOIN s.responsible r JOIN a.category c " +
+            "WHERE r.id > :groupId OR (r.id = :groupId AND a.id > :articleId) " +
+            "ORDER BY r.id, a.id")
+    List<InventoryReportRow> findReportRowsByResponsible(@Param("groupId") Long groupId,
+                                                         @Param("articleId") Long articleId,
+                                                         Limit limit);
+
+    // Conteo de artículos por categoría, incluyendo categorías sin artículos
+    @Query("SELECT new utez.edu.mx.sinv.models.dashboard.NameCount(c.name, COUNT(a)) " +
+            "FROM Categories c LEFT JOIN c.articles a GROUP BY c.id, c.name ORDER BY c.id")
+    List<NameCount> countPerCategory();
+
+    @EntityGraph(attributePaths = "category")
+    List<Articles> findTop5ByOrderByIdDesc();
+
+    // Validadores de ETag: se calculan sin cargar entidades
+    @Query("SELECT new utez.edu.mx.sinv.utils.VersionStamp(COUNT(a), COALESCE(SUM(a.version), 0L), COALESCE(SUM(a.id), 0L)) " +
+            "FROM Articles a")
+    VersionStamp findVersionStamp();
+
+    // El detalle incluye la categoría, así que su versión también cuenta
+    @Query("SELECT new utez.edu.mx.sinv.models.articles.ArticleVersionStamp(a.version, a.id, c.version, c.id) " +
+            "FROM Articles a JOIN a.category c WHERE a.id = :id")
+    Optional<ArticleVersionStamp> findVersionStamp(@Param("id") Long id);
+
     // Consulta para verificar si existe un artículo con el mismo nombre (sin importar el almacén)
     boolean existsByName(String name);
 
+    // Validación en bloque para la importación masiva
+    @Query("SELECT a.name FROM Articles a WHERE a.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
     // Consulta para verificar si un artículo está en un almacén específico
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END " +
             "FROM Articles a JOIN a.storages s WHERE a.name = :name AND s.id = :storageId")
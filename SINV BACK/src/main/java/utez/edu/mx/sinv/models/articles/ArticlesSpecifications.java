@@ -0,0 +1,30 @@
+package utez.edu.mx.sinv.models.articles;
+
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+import utez.edu.mx.sinv.models.storage.Storage;
+
+public final class ArticlesSpecifications {
+    private ArticlesSpecifications() {
+    }
+
+    public static Specification<Articles> nameContains(String name) {
+        String pattern = "%" + name.trim().toLowerCase() + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern);
+    }
+
+    public static Specification<Articles> hasStatus(Boolean status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Articles> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Articles> inStorage(Long storageId) {
+        return (root, query, cb) -> {
+            Join<Articles, Storage> storages = root.join("storages");
+            return cb.equal(storages.get("id"), storageId);
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package utez.edu.mx.sinv.models.articles;
+
+// Fila de los reportes de inventario; groupId/groupName es el almacén, la categoría o el responsable
+public record InventoryReportRow(
+        Long groupId,
+        String groupName,
+        Long articleId,
+        String articleName,
+        String description,
+        Boolean status,
+        String categoryName,
+        String storageIdentifier
+) {
+    // Agrupado por categoría no se une con almacenes para no repetir artículos
+    public InventoryReportRow(Long groupId, String groupName, Long articleId, String articleName,
+                              String description, Boolean status, String categoryName) {
+        this(groupId, groupName, articleId, articleName, description, status, categoryName, null);
+    }
+}
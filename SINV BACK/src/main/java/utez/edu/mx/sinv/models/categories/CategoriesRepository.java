@@ -1,17 +1,40 @@
 package utez.edu.mx.sinv.models.categories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import utez.edu.mx.sinv.utils.VersionStamp;
+
 import java.util.List;
 import java.util.Optional;
 
 public interface CategoriesRepository extends JpaRepository<Categories, Long> {
+    // Por id se resuelve en la región de segundo nivel de Categories; cada sesión recibe su propia instancia
     Optional<Categories> findById(Long id);
 
+    // El cache de consultas guarda solo los ids y las entidades salen de la región de segundo nivel
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Categories> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Categories> findByName(String name);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM Categories c WHERE c.status = true")
     List<Categories> findAllActive();
 
     boolean existsByName(String name);
-}
\ No newline at end of file
+
+    // Validadores de ETag: se calculan sin cargar entidades
+    @Query("SELECT new utez.edu.mx.sinv.utils.VersionStamp(COUNT(c), COALESCE(SUM(c.version), 0L), COALESCE(SUM(c.id), 0L)) " +
+            "FROM Categories c")
+    VersionStamp findVersionStamp();
+
+    @Query("SELECT new utez.edu.mx.sinv.utils.VersionStamp(COUNT(c), SUM(c.version), SUM(c.id)) " +
+            "FROM Categories c WHERE c.id = :id GROUP BY c.id")
+    Optional<VersionStamp> findVersionStamp(@Param("id") Long id);
+}
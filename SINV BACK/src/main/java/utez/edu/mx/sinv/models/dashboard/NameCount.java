@@ -0,0 +1,5 @@
+package utez.edu.mx.sinv.models.dashboard;
+
+// Proyección de conteos agrupados (por categoría, por rol, etc.)
+public record NameCount(String name, Long count) {
+}
@@ -0,0 +1,61 @@
+package utez.edu.mx.sinv.models.mail;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Correo pendiente de envío; se guarda en la misma transacción que el dato que lo origina
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_status_next", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class MailOutbox {
+    public static final String PASSWORD_RESET = "PASSWORD_RESET";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 30, nullable = false)
+    private String type;
+
+    @Column(length = 45, nullable = false)
+    private String recipient;
+
+    // Dato necesario para armar el correo (el código de restablecimiento); se borra al enviarse
+    @Column(length = 255)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private MailStatus status = MailStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Próximo intento; mientras está en SENDING funciona como fin del préstamo al worker
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public MailOutbox(String type, String recipient, String payload) {
+        this.type = type;
+        this.recipient = recipient;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
@@ -0,0 +1,39 @@
+package utez.edu.mx.sinv.models.mail;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+    // Pendientes vencidos y envíos cuyo worker no terminó dentro del préstamo
+    @Query("SELECT m.id FROM MailOutbox m " +
+            "WHERE m.status IN (utez.edu.mx.sinv.models.mail.MailStatus.PENDING, utez.edu.mx.sinv.models.mail.MailStatus.SENDING) " +
+            "AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+
+    // Toma el correo solo si nadie más lo tomó; el UPDATE condicional evita envíos duplicados entre instancias
+    @Modifying
+    @Query("UPDATE MailOutbox m SET m.status = utez.edu.mx.sinv.models.mail.MailStatus.SENDING, " +
+            "m.attempts = m.attempts + 1, m.nextAttemptAt = :leaseUntil " +
+            "WHERE m.id = :id AND m.nextAttemptAt <= :now " +
+            "AND m.status IN (utez.edu.mx.sinv.models.mail.MailStatus.PENDING, utez.edu.mx.sinv.models.mail.MailStatus.SENDING)")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE MailOutbox m SET m.status = utez.edu.mx.sinv.models.mail.MailStatus.SENT, " +
+            "m.sentAt = :now, m.payload = NULL, m.lastError = NULL WHERE m.id = :id")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE MailOutbox m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, m.lastError = :error " +
+            "WHERE m.id = :id")
+    int markFailedAttempt(@Param("id") Long id,
+                          @Param("status") MailStatus status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("error") String error);
+}
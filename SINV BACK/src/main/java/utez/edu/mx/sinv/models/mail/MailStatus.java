@@ -0,0 +1,8 @@
+package utez.edu.mx.sinv.models.mail;
+
+public enum MailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
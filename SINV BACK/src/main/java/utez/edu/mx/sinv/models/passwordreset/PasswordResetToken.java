@@ -9,17 +9,23 @@ import java.util.Date;
 @Data
 @NoArgsConstructor
 @Entity
+@Table(name = "password_reset_token", indexes = {
+        @Index(name = "uk_password_reset_token_token", columnList = "token", unique = true),
+        @Index(name = "idx_password_reset_token_expiry", columnList = "expiry_date")
+})
 public class PasswordResetToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(length = 20, nullable = false)
     private String token;
 
     @ManyToOne
     @JoinColumn(name = "userId", nullable = false)
     private Users user;
 
+    @Column(name = "expiry_date")
     private Date expiryDate;
 
     private boolean used;
@@ -1,9 +1,12 @@
 package utez.edu.mx.sinv.models.passwordreset;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import utez.edu.mx.sinv.models.user.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
@@ -17,9 +20,12 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     @Query("UPDATE PasswordResetToken t SET t.used = true WHERE t.token = ?1")
     void markTokenAsUsed(String token);
 
+    // Borra a lo sumo "limit" tokens vencidos; en lotes chicos cada transacción bloquea pocas filas.
+    // Sin declarar la tabla afectada, Hibernate vaciaría todo el cache de segundo nivel en cada lote
     @Modifying
-    @Query("DELETE FROM PasswordResetToken t WHERE t.expiryDate < ?1")
-    void deleteExpiredTokens(Date now);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "password_reset_token"))
+    @Query(value = "DELETE FROM password_reset_token WHERE expiry_date < ?1 LIMIT ?2", nativeQuery = true)
+    int deleteExpiredBatch(Date now, int limit);
 
     void deleteByUser(Users user);
 }
\ No newline at end of file
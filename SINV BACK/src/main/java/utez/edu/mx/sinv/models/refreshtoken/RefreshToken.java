@@ -0,0 +1,52 @@
+package utez.edu.mx.sinv.models.refreshtoken;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+// Solo se guarda el SHA-256 del token; el valor en claro nunca llega a la base de datos.
+// Todos los tokens de una misma sesión comparten session_id, que también viaja en el access token
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "uk_refresh_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_token_session", columnList = "session_id"),
+        @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_expires", columnList = "expires_at"),
+        @Index(name = "idx_refresh_token_revoked", columnList = "revoked_at")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", length = 43, nullable = false)
+    private String tokenHash;
+
+    @Column(name = "session_id", length = 22, nullable = false)
+    private String sessionId;
+
+    // Sin llave foránea: al borrar un usuario sus sesiones se revocan y la limpieza las elimina
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+    // Un token ya rotado que vuelve a presentarse es un reuso y revoca toda la sesión
+    @Column(name = "rotated_at")
+    private Date rotatedAt;
+
+    // Se marca en todos los tokens de la sesión al cerrar sesión, deshabilitar al usuario o detectar un reuso
+    @Column(name = "revoked_at")
+    private Date revokedAt;
+
+    public RefreshToken(String tokenHash, String sessionId, Long userId, Date expiresAt) {
+        this.tokenHash = tokenHash;
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+}
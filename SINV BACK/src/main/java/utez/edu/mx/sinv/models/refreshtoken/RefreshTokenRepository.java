@@ -0,0 +1,45 @@
+package utez.edu.mx.sinv.models.refreshtoken;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Rotación atómica: solo una petición concurrente logra marcar el token como usado
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.rotatedAt = :now WHERE t.id = :id AND t.rotatedAt IS NULL AND t.revokedAt IS NULL")
+    int markRotated(@Param("id") Long id, @Param("now") Date now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.sessionId = :sessionId AND t.revokedAt IS NULL")
+    int revokeSession(@Param("sessionId") String sessionId, @Param("now") Date now);
+
+    @Query("SELECT DISTINCT t.sessionId FROM RefreshToken t WHERE t.userId = :userId AND t.revokedAt IS NULL AND t.rotatedAt IS NULL AND t.expiresAt > :now")
+    List<String> findActiveSessionIds(@Param("userId") Long userId, @Param("now") Date now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.userId = :userId AND t.revokedAt IS NULL")
+    int revokeUser(@Param("userId") Long userId, @Param("now") Date now);
+
+    // Sesiones revocadas cuyos access tokens todavía podrían estar vigentes
+    @Query("SELECT DISTINCT t.sessionId FROM RefreshToken t WHERE t.revokedAt > :since")
+    List<String> findSessionIdsRevokedSince(@Param("since") Date since);
+
+    // Igual que con los tokens de restablecimiento: lotes chicos y la tabla declarada para no vaciar el cache L2
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_token"))
+    @Query(value = "DELETE FROM refresh_token WHERE expires_at < ?1 LIMIT ?2", nativeQuery = true)
+    int deleteExpiredBatch(Date now, int limit);
+}
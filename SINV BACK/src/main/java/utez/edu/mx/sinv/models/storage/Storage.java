@@ -1,7 +1,11 @@
 package utez.edu.mx.sinv.models.storage;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import utez.edu.mx.sinv.models.articles.Articles;
 import utez.edu.mx.sinv.models.categories.Categories;
 import utez.edu.mx.sinv.models.user.Users;
@@ -10,31 +14,47 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "storages")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "storages", uniqueConstraints = {
+        @UniqueConstraint(name = Storage.UK_IDENTIFIER, columnNames = "identifier"),
+        @UniqueConstraint(name = Storage.UK_RESPONSIBLE, columnNames = "responsible_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Storage {
+    public static final String UK_IDENTIFIER = "uk_storages_identifier";
+    public static final String UK_RESPONSIBLE = "uk_storages_responsible";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "identifier", length = 10, nullable = false, unique = true)
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0", nullable = false)
+    private Long version;
+
+    @Column(name = "identifier", length = 10, nullable = false)
     private String identifier; // Ej: A-001
 
     @Column(columnDefinition = "BOOL DEFAULT true")
     private Boolean status = true;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Categories category;
 
-    @OneToOne
-    @JoinColumn(name = "responsible_id", unique = true)
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "responsible_id")
     private Users responsible;
 
+    // Si la colección no viene en el entity graph, se carga por lotes y no un query por almacén.
+    // No se cachea: es el lado inverso y las altas, cambios y bajas de artículos no pasan por ella
     @ManyToMany(mappedBy = "storages")
+    @BatchSize(size = 50)
     private Set<Articles> articles = new HashSet<>();
 
     // Metodo helper para mantener consistencia en ambas direcciones
@@ -0,0 +1,5 @@
+package utez.edu.mx.sinv.models.storage;
+
+// Proyección mínima para validar en bloque la categoría de varios almacenes
+public record StorageCategoryRef(Long storageId, Long categoryId) {
+}
@@ -1,22 +1,91 @@
 package utez.edu.mx.sinv.models.storage;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import utez.edu.mx.sinv.models.dashboard.NameCount;
+import utez.edu.mx.sinv.utils.VersionStamp;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface StorageRepository extends JpaRepository<Storage, Long> {
+public interface StorageRepository extends JpaRepository<Storage, Long>, JpaSpecificationExecutor<Storage> {
+    @EntityGraph(attributePaths = {"category", "responsible", "responsible.role", "articles", "articles.category"})
     Optional<Storage> findById(Long id);
 
+    // Listado completo en un solo SELECT: categoría, responsable y artículos vienen por JOIN
+    @Override
+    @EntityGraph(attributePaths = {"category", "responsible", "responsible.role", "articles", "articles.category"})
+    List<Storage> findAll();
+
+    // Con paginación no se trae la colección por JOIN (obligaría a paginar en memoria);
+    // los artículos se cargan por lotes gracias al @BatchSize de Storage.articles
+    @Override
+    @EntityGraph(attributePaths = {"category", "responsible", "responsible.role"})
+    Page<Storage> findAll(Specification<Storage> spec, Pageable pageable);
+
+    // Los resultados del cache de consultas se invalidan solos cuando cambia la tabla storages
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Storage> findByIdentifier(String identifier);
 
+    @EntityGraph(attributePaths = {"category", "responsible", "responsible.role", "articles", "articles.category"})
     @Query("SELECT s FROM Storage s WHERE s.responsible.id = :userId")
     Optional<Storage> findByResponsibleId(@Param("userId") Long userId);
 
+    @EntityGraph(attributePaths = {"category", "responsible", "responsible.role", "articles", "articles.category"})
     @Query("SELECT s FROM Storage s WHERE s.category.id = :categoryId")
     List<Storage> findByCategoryId(@Param("categoryId") Long categoryId);
 
     boolean existsByIdentifier(String identifier);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new utez.edu.mx.sinv.models.storage.StorageCategoryRef(s.id, s.category.id) " +
+            "FROM Storage s WHERE s.id IN :ids")
+    List<StorageCategoryRef> findCategoryRefs(@Param("ids") Collection<Long> ids);
+
+    // Conteo de almacenes por categoría, incluyendo categorías sin almacenes
+    @Query("SELECT new utez.edu.mx.sinv.models.dashboard.NameCount(c.name, COUNT(s)) " +
+            "FROM Categories c LEFT JOIN Storage s ON s.category = c GROUP BY c.id, c.name ORDER BY c.id")
+    List<NameCount> countPerCategory();
+
+    @Query("SELECT COUNT(s) FROM Storage s WHERE s.articles IS EMPTY")
+    long countEmpty();
+
+    long countByResponsibleIsNotNull();
+
+    // Validadores de ETag: se calculan sin cargar entidades
+    @Query("SELECT new utez.edu.mx.sinv.utils.VersionStamp(COUNT(s), COALESCE(SUM(s.version), 0L), COALESCE(SUM(s.id), 0L)) " +
+            "FROM Storage s")
+    VersionStamp findVersionStamp();
+
+    // El detalle incluye categoría, responsable y artículos (con su categoría); todas sus versiones cuentan.
+    // Asignar o quitar un artículo incrementa la versión del artículo, que es el dueño de la relación
+    @Query("SELECT new utez.edu.mx.sinv.models.storage.StorageVersionStamp(" +
+            "MAX(s.version), MAX(s.id), MAX(c.version), MAX(c.id), " +
+            "COALESCE(MAX(r.version), 0L), COALESCE(MAX(r.id), 0L), " +
+            "COUNT(a), COALESCE(SUM(a.version), 0L), COALESCE(SUM(a.id), 0L), " +
+            "COALESCE(SUM(ac.version), 0L), COALESCE(SUM(ac.id), 0L)) " +
+            "FROM Storage s JOIN s.category c LEFT JOIN s.responsible r " +
+            "LEFT JOIN s.articles a LEFT JOIN a.category ac " +
+            "WHERE s.id = :id GROUP BY s.id")
+    Optional<StorageVersionStamp> findVersionStamp(@Param("id") Long id);
+
+    @Query("SELECT new utez.edu.mx.sinv.models.storage.StorageVersionStamp(" +
+            "MAX(s.version), MAX(s.id), MAX(c.version), MAX(c.id), " +
+            "COALESCE(MAX(r.version), 0L), COALESCE(MAX(r.id), 0L), " +
+            "COUNT(a), COALESCE(SUM(a.version), 0L), COALESCE(SUM(a.id), 0L), " +
+            "COALESCE(SUM(ac.version), 0L), COALESCE(SUM(ac.id), 0L)) " +
+            "FROM Storage s JOIN s.category c JOIN s.responsible r " +
+            "LEFT JOIN s.articles a LEFT JOIN a.category ac " +
+            "WHERE r.id = :userId GROUP BY s.id")
+    Optional<StorageVersionStamp> findVersionStampByResponsibleId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package utez.edu.mx.sinv.models.storage;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public final class StorageSpecifications {
+    private StorageSpecifications() {
+    }
+
+    public static Specification<Storage> identifierContains(String identifier) {
+        String pattern = "%" + identifier.trim().toLowerCase() + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("identifier")), pattern);
+    }
+
+    public static Specification<Storage> hasStatus(Boolean status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Storage> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Storage> hasResponsible(Boolean assigned) {
+        return (root, query, cb) -> assigned
+                ? cb.isNotNull(root.get("responsible"))
+                : cb.isNull(root.get("responsible"));
+    }
+}
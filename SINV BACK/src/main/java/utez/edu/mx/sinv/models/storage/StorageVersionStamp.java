@@ -0,0 +1,29 @@
+package utez.edu.mx.sinv.models.storage;
+
+import utez.edu.mx.sinv.utils.VersionStamp;
+
+// Validador del detalle de un almacén en una sola consulta, con una parte por tabla: al sumar versiones de
+// tablas distintas el cambio de una fila podía compensar el de otra (p. ej. cambiar de responsable)
+public record StorageVersionStamp(
+        Long storageVersion,
+        Long storageId,
+        Long categoryVersion,
+        Long categoryId,
+        Long responsibleVersion,
+        Long responsibleId,
+        Long articleCount,
+        Long articleVersionSum,
+        Long articleIdSum,
+        Long articleCategoryVersionSum,
+        Long articleCategoryIdSum
+) {
+    public VersionStamp[] parts() {
+        return new VersionStamp[]{
+                new VersionStamp(1L, storageVersion, storageId),
+                new VersionStamp(1L, categoryVersion, categoryId),
+                new VersionStamp(responsibleId == 0 ? 0L : 1L, responsibleVersion, responsibleId),
+                new VersionStamp(articleCount, articleVersionSum, articleIdSum),
+                new VersionStamp(articleCount, articleCategoryVersionSum, articleCategoryIdSum)
+        };
+    }
+}
@@ -1,23 +1,57 @@
 package utez.edu.mx.sinv.models.user;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import utez.edu.mx.sinv.models.dashboard.NameCount;
+import utez.edu.mx.sinv.utils.VersionStamp;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface UsersRepository extends JpaRepository<Users, Long> {
+public interface UsersRepository extends JpaRepository<Users, Long>, JpaSpecificationExecutor<Users> {
     Optional<Users> findById(Long id);
 
     Optional<Users> findByEmail(String email);
 
+    // Login: usuario, rol y almacén asignado en un solo SELECT
+    @Query("SELECT u FROM Users u LEFT JOIN FETCH u.role LEFT JOIN FETCH u.managedStorage WHERE u.email = :email")
+    Optional<Users> findForSignIn(@Param("email") String email);
+
     Optional<Users> findByUsername(String username);
 
+    // managedStorage es el lado inverso del OneToOne y siempre se resuelve; se trae por JOIN
+    // para no lanzar un query por usuario
+    @Override
+    @EntityGraph(attributePaths = {"role", "managedStorage"})
+    List<Users> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"role", "managedStorage"})
+    Page<Users> findAll(Specification<Users> spec, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"role", "managedStorage"})
     @Query("SELECT u FROM Users u WHERE u.role.name = :roleName")
     List<Users> findByRoleName(@Param("roleName") String roleName);
 
+    @Query("SELECT u.email FROM Users u WHERE u.status = false")
+    List<String> findDisabledEmails();
+
+    @Query("SELECT new utez.edu.mx.sinv.models.dashboard.NameCount(COALESCE(r.name, 'Sin rol'), COUNT(u)) " +
+            "FROM Users u LEFT JOIN u.role r GROUP BY r.name")
+    List<NameCount> countPerRole();
+
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
+
+    // Validador de ETag para los listados que incluyen usuarios (responsables de almacén)
+    @Query("SELECT new utez.edu.mx.sinv.utils.VersionStamp(COUNT(u), COALESCE(SUM(u.version), 0L), COALESCE(SUM(u.id), 0L)) " +
+            "FROM Users u")
+    VersionStamp findVersionStamp();
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package utez.edu.mx.sinv.models.user;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public final class UsersSpecifications {
+    private UsersSpecifications() {
+    }
+
+    // Busca en nombre completo, usuario y correo
+    public static Specification<Users> matches(String text) {
+        String pattern = "%" + text.trim().toLowerCase() + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("fullName")), pattern),
+                cb.like(cb.lower(root.get("username")), pattern),
+                cb.like(cb.lower(root.get("email")), pattern)
+        );
+    }
+
+    public static Specification<Users> hasStatus(Boolean status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Users> hasRole(String roleName) {
+        return (root, query, cb) -> cb.equal(root.get("role").get("name"), roleName);
+    }
+}
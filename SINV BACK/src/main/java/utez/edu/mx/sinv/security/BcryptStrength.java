@@ -0,0 +1,37 @@
+package utez.edu.mx.sinv.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+// Calcula el costo de BCrypt según el hardware: cada punto de costo duplica el tiempo del hash
+public final class BcryptStrength {
+    // Mínimo recomendado hoy para BCrypt; por debajo no se baja aunque el servidor sea lento
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 14;
+    private static final int SAMPLES = 3;
+
+    private BcryptStrength() {
+    }
+
+    // Mide el costo mínimo y sube mientras el hash estimado quepa en el tiempo objetivo
+    public static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        encoder.encode("warm-up");
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double baseMillis = Math.max(samples[SAMPLES / 2] / 1_000_000.0, 0.001);
+
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && baseMillis * (1L << (strength + 1 - MIN_STRENGTH)) <= targetMillis) {
+            strength++;
+        }
+        return strength;
+    }
+}
@@ -2,12 +2,16 @@ package utez.edu.mx.sinv.security;
 
 import utez.edu.mx.sinv.security.jwt.JwtAuthenticationFilter;
 import utez.edu.mx.sinv.security.jwt.JwtProvider;
+import utez.edu.mx.sinv.security.jwt.TokenDenyList;
+import utez.edu.mx.sinv.security.ratelimit.LoginRateLimitFilter;
 import utez.edu.mx.sinv.security.service.UserDetailsImplService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -16,9 +20,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -38,10 +41,15 @@ public class MainSecurity {
 
     private final UserDetailsImplService service;
     private final JwtProvider jwtProvider;
+    private final TokenDenyList denyList;
+    private final LoginRateLimitFilter rateLimitFilter;
 
-    public MainSecurity(UserDetailsImplService service, JwtProvider jwtProvider) {
+    public MainSecurity(UserDetailsImplService service, JwtProvider jwtProvider, TokenDenyList denyList,
+                        LoginRateLimitFilter rateLimitFilter) {
         this.service = service;
         this.jwtProvider = jwtProvider;
+        this.denyList = denyList;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     private final String[] whiteList = {
@@ -51,19 +59,6 @@ public class MainSecurity {
             "/swagger-ui.html",
     };
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
-    @Bean
-    public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider dao = new DaoAuthenticationProvider();
-        dao.setUserDetailsService(service);
-        dao.setPasswordEncoder(passwordEncoder());
-        return dao;
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(
             AuthenticationConfiguration configuration
@@ -73,7 +68,7 @@ public class MainSecurity {
 
     @Bean
     public JwtAuthenticationFilter filter() {
-        return new JwtAuthenticationFilter(jwtProvider, service);
+        return new JwtAuthenticationFilter(jwtProvider, service, denyList);
     }
 
     // Bean para configurar CORS
@@ -92,28 +87,43 @@ public class MainSecurity {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http.cors(Customizer.withDefaults()) // Usará el corsConfigurationSource bean automáticamente
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(req ->
-                        req.requestMatchers(whiteList).permitAll()
+                        // El despacho ASYNC de las descargas en streaming ya fue autorizado en la petición original
+                        req.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                .requestMatchers(whiteList).permitAll()
+                                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                                .requestMatchers("/actuator/**").hasAuthority(ADMINISTRADOR)
                                 .requestMatchers("/api/users/request-password-reset").permitAll()
                                 .requestMatchers("/api/users/reset-password").permitAll()
                                 .requestMatchers("/api/users/").permitAll()
+                                .requestMatchers(HttpMethod.POST, "/api/articles/bulk", "/api/articles/import").hasAuthority(ADMINISTRADOR)
                                 .requestMatchers("/api/articles/**").hasAnyAuthority(ALL_ROLES)
                                 .requestMatchers("/api/categories/**").hasAnyAuthority(ALL_ROLES)
                                 .requestMatchers("/api/storage/**").hasAnyAuthority(ALL_ROLES)
                                 .requestMatchers("/api/profile/**").hasAnyAuthority(ALL_ROLES)
                                 .requestMatchers("/api/users/**").hasAnyAuthority(ALL_ROLES)
                                 .requestMatchers("/api/role/**").hasAnyAuthority(ALL_ROLES)
+                                .requestMatchers("/api/cache/**").hasAuthority(ADMINISTRADOR)
+                                .requestMatchers("/api/dashboard/**").hasAuthority(ADMINISTRADOR)
+                                .requestMatchers("/api/reports/**").hasAuthority(ADMINISTRADOR)
+                                .requestMatchers("/api/maintenance/**").hasAuthority(ADMINISTRADOR)
                                 .anyRequest().authenticated()
                 )
-                .httpBasic(Customizer.withDefaults())
+                // Solo JWT: Basic verificaría contraseñas en cada petición sin pasar por el límite de intentos
+                .httpBasic(AbstractHttpConfigurer::disable)
+                // Sin Basic, una petición sin sesión válida sigue respondiendo 401 y no 403
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .headers(header -> header.frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(filter(), UsernamePasswordAuthenticationFilter.class)
-                .logout(out -> out.logoutUrl("/api/auth/logout").clearAuthentication(true));
+                // El límite por IP corre primero para no gastar ni la verificación del JWT en una ráfaga
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
+                // El cierre de sesión lo atiende AuthController para revocar la sesión en el servidor
+                .logout(AbstractHttpConfigurer::disable);
         return http.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package utez.edu.mx.sinv.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import utez.edu.mx.sinv.metrics.TimedPasswordEncoder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Separado de MainSecurity: UserService necesita el encoder y MainSecurity depende de UserDetailsImplService,
+// así que tenerlo ahí formaba un ciclo de dependencias
+@Configuration
+public class PasswordEncoderConfig {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    private static final String BCRYPT = "bcrypt";
+
+    // 0 = calcular el costo al arrancar según security.bcrypt.target-millis
+    @Value("${security.bcrypt.strength:10}")
+    private int strength;
+
+    @Value("${security.bcrypt.target-millis:100}")
+    private long targetMillis;
+
+    @Value("${security.hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.hashing.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry registry) {
+        int cost = strength > 0 ? strength : BcryptStrength.calibrate(targetMillis);
+        logger.info("BCrypt cost: {}", cost);
+
+        // Los hashes nuevos llevan prefijo {bcrypt}; cambiar el algoritmo o el costo solo requiere cambiar esto
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(cost));
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, encoders);
+        // Los hashes guardados antes de este cambio no tienen prefijo; se validan como BCrypt y se
+        // reescriben en el siguiente login exitoso (upgradeEncoding devuelve true para ellos)
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "sinv.security.password.hashing", List.of()).bindTo(registry);
+
+        return new BoundedPasswordEncoder(new TimedPasswordEncoder(delegating, registry), executor, timeoutMillis);
+    }
+}
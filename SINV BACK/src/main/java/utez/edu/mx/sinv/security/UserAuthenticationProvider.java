@@ -0,0 +1,91 @@
+package utez.edu.mx.sinv.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import utez.edu.mx.sinv.models.user.Users;
+import utez.edu.mx.sinv.models.user.UsersRepository;
+import utez.edu.mx.sinv.security.entity.UserDetailsImpl;
+import utez.edu.mx.sinv.services.users.UserService;
+
+import java.util.Optional;
+
+// Autentica con una sola consulta (usuario + rol + almacén por JOIN FETCH) y deja la entidad en el
+// principal para que el login no tenga que volver a buscar al usuario
+@Component
+public class UserAuthenticationProvider implements AuthenticationProvider {
+    private static final Logger logger = LoggerFactory.getLogger(UserAuthenticationProvider.class);
+
+    private final UsersRepository usersRepository;
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    // Hash de referencia para que un correo inexistente tarde lo mismo que una contraseña incorrecta
+    private volatile String dummyHash;
+
+    public UserAuthenticationProvider(UsersRepository usersRepository,
+                                      UserService userService,
+                                      PasswordEncoder passwordEncoder) {
+        this.usersRepository = usersRepository;
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        String password = authentication.getCredentials() != null ? authentication.getCredentials().toString() : "";
+
+        Optional<Users> found = usersRepository.findForSignIn(email);
+        if (found.isEmpty()) {
+            passwordEncoder.matches(password, dummyHash());
+            throw new UsernameNotFoundException("UserNotFound");
+        }
+
+        Users user = found.get();
+        if (!passwordEncoder.matches(password, user.getPassword())) {
+            throw new BadCredentialsException("CredentialMismatch");
+        }
+        // El estado se revisa después de la contraseña para no revelarlo a quien no la conoce
+        if (!Boolean.TRUE.equals(user.getStatus())) {
+            throw new DisabledException("UserDisabled");
+        }
+
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            upgradePassword(user, password);
+        }
+
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    // Hash viejo (sin prefijo o de menor costo): se reemplaza; si falla, el login sigue siendo válido.
+    // Solo se escribe en la transacción propia de rehashPassword: la entidad cargada aquí no se toca,
+    // porque su versión quedó vieja y al guardarla después fallaría por bloqueo optimista
+    private void upgradePassword(Users user, String password) {
+        try {
+            userService.rehashPassword(user.getEmail(), passwordEncoder.encode(password));
+        } catch (RuntimeException e) {
+            logger.warn("Could not upgrade the password hash for {}", user.getEmail(), e);
+        }
+    }
+
+    private String dummyHash() {
+        if (dummyHash == null) {
+            dummyHash = passwordEncoder.encode("userNotFoundPassword");
+        }
+        return dummyHash;
+    }
+}
@@ -13,6 +13,8 @@ public class UserDetailsImpl implements UserDetails {
     private String password;
     private boolean blocked;
     private Collection<? extends GrantedAuthority> authorities;
+    // Entidad con la que se autenticó en el login; los principals armados desde el JWT no la tienen
+    private Users user;
 
     public UserDetailsImpl(String email, String password, boolean blocked, Collection<? extends GrantedAuthority> authorities) {
         this.email = email;
@@ -24,9 +26,15 @@ public class UserDetailsImpl implements UserDetails {
     public static UserDetailsImpl build(Users user){
         Set<SimpleGrantedAuthority> authorities = Set.of(new SimpleGrantedAuthority(user.getRole().getName()));
 
-        return new UserDetailsImpl(
+        UserDetailsImpl details = new UserDetailsImpl(
                 user.getEmail(), user.getPassword(), user.getStatus(),authorities
         );
+        details.user = user;
+        return details;
+    }
+
+    public Users getUser() {
+        return user;
     }
 
     @Override
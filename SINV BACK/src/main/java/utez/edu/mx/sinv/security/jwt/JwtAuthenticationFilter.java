@@ -2,56 +2,76 @@ package utez.edu.mx.sinv.security.jwt;
 
 import utez.edu.mx.sinv.security.service.UserDetailsImplService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Map;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtProvider provider;
     private final UserDetailsImplService service;
+    private final TokenDenyList denyList;
 
-    public JwtAuthenticationFilter(JwtProvider provider, UserDetailsImplService service) {
+    // En modo stateless el principal se arma con los claims del token y no se consulta la base de datos
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+
+    public JwtAuthenticationFilter(JwtProvider provider, UserDetailsImplService service, TokenDenyList denyList) {
         this.provider = provider;
         this.service = service;
+        this.denyList = denyList;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        try {
-            String token = provider.resolveToken(request);
-            if (token == null) {
-                filterChain.doFilter(request, response);
+        String token = provider.resolveToken(request);
+        if (token != null) {
+            try {
+                authenticate(token);
+            } catch (JwtException | IllegalArgumentException | AuthenticationException e) {
+                // Vencido, mal formado o de un usuario que ya no existe: 401 para que el cliente renueve la sesión.
+                // 403 queda solo para la falta de permisos, que no se arregla renovando
+                SecurityContextHolder.clearContext();
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Error de autenticación: " + e.getMessage());
                 return;
             }
+        }
+        // Fuera del try: los errores de los controladores no son errores de autenticación
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(String token) {
+        // Se parsea el token una sola vez por petición (o ninguna si ya está en cache)
+        VerifiedTokenCache.VerifiedToken verified = provider.verify(token);
+        Claims claims = verified.getClaims();
 
-            Map<String, Claims> claimsMap = provider.resolveClaims(request);
-            Claims claims = claimsMap.get("claims");
-
-            if (claims != null && provider.validateClaims(claims, token)) {
-                String email = claims.getSubject();
-                UserDetails userDetails = service.loadUserByUsername(email);
-                Authentication authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (provider.validateClaims(claims) && !denyList.isRevoked(claims)) {
+            UserDetails userDetails = verified.getPrincipal();
+            if (userDetails == null) {
+                userDetails = stateless
+                        ? provider.buildPrincipal(claims)
+                        : service.loadUserByUsername(claims.getSubject());
+                verified.setPrincipal(userDetails);
             }
-            filterChain.doFilter(request, response);
-        } catch (Exception e) {
-            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Error de autenticación: " + e.getMessage());
+            Authentication authentication = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
     }
 }
\ No newline at end of file
@@ -3,16 +3,25 @@ package utez.edu.mx.sinv.security.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import utez.edu.mx.sinv.security.entity.UserDetailsImpl;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class JwtProvider {
@@ -20,17 +29,56 @@ public class JwtProvider {
     private static final String TOKEN_HEADER = "Authorization";
     private static final String TOKEN_TYPE = "Bearer ";
     private static final String ROLES_CLAIM = "roles";
+    private static final String STATUS_CLAIM = "status";
+    static final String SESSION_CLAIM = "sid";
 
     @Value("${jwt.secret}")
     private String secret;
 
-    @Value("${jwt.expiration}")
+    // Access token de vida corta; la sesión se extiende con el refresh token
+    @Value("${jwt.access-expiration:900}")
     private long expiration;
 
+    private static final String JWT_TIMER = "sinv.security.jwt";
+
+    private final VerifiedTokenCache tokenCache;
+    private final MeterRegistry registry;
+    private final Timer generateTimer;
+
+    // Llave y parser se construyen una sola vez en lugar de hacerlo en cada petición
+    private Key signKey;
+    private JwtParser parser;
+
+    public JwtProvider(VerifiedTokenCache tokenCache, MeterRegistry registry) {
+        this.tokenCache = tokenCache;
+        this.registry = registry;
+        this.generateTimer = registry.timer(JWT_TIMER, "operation", "generate", "result", "ok");
+    }
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        signKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+    }
+
     public String generateToken(Authentication auth) {
-        UserDetails user = (UserDetails) auth.getPrincipal();
+        return generateToken((UserDetails) auth.getPrincipal(), null);
+    }
+
+    public String generateToken(UserDetails user, String sessionId) {
+        return generateTimer.record(() -> buildToken(user, sessionId));
+    }
+
+    private String buildToken(UserDetails user, String sessionId) {
         Claims claims = Jwts.claims().setSubject(user.getUsername());
-        claims.put(ROLES_CLAIM, user.getAuthorities());
+        claims.put(ROLES_CLAIM, user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        claims.put(STATUS_CLAIM, user.isAccountNonLocked());
+        if (sessionId != null) claims.put(SESSION_CLAIM, sessionId);
 
         Date tokenCreateTime = new Date();
         Date tokenValidity = new Date(tokenCreateTime.getTime() + expiration * 1000);
@@ -40,32 +88,66 @@ public class JwtProvider {
                 .setSubject(user.getUsername())
                 .setIssuedAt(tokenCreateTime)
                 .setExpiration(tokenValidity)
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Claims parseJwtClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private Claims parseJwtClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verifica la firma solo la primera vez que se ve el token; después se reutilizan los claims
+    public VerifiedTokenCache.VerifiedToken verify(String token) {
+        Timer.Sample sample = Timer.start(registry);
+        String result = "invalid";
+        try {
+            VerifiedTokenCache.VerifiedToken cached = tokenCache.get(token);
+            if (cached != null) {
+                result = "cache_hit";
+                return cached;
+            }
+            VerifiedTokenCache.VerifiedToken verified = tokenCache.put(token, parseJwtClaims(token));
+            result = "verified";
+            return verified;
+        } finally {
+            sample.stop(registry.timer(JWT_TIMER, "operation", "verify", "result", result));
+        }
+    }
+
+    public String resolveSessionId(Claims claims) {
+        return claims.get(SESSION_CLAIM, String.class);
+    }
+
+    public Claims resolveClaims(String token) {
+        return verify(token).getClaims();
     }
 
     public Map<String, Claims> resolveClaims(HttpServletRequest req) {
         String token = resolveToken(req);
         if (token != null) {
-            Claims claims = parseJwtClaims(token);
-            return Collections.singletonMap("claims", claims);
+            return Collections.singletonMap("claims", resolveClaims(token));
         }
         return Collections.emptyMap();
     }
 
+    // Construye el principal directamente de los claims firmados, sin consultar la base de datos
+    public UserDetailsImpl buildPrincipal(Claims claims) {
+        Set<SimpleGrantedAuthority> authorities = new HashSet<>();
+        Object roles = claims.get(ROLES_CLAIM);
+        if (roles instanceof Collection<?> values) {
+            for (Object value : values) {
+                // Los tokens anteriores guardaban el objeto serializado {"authority": "..."}
+                Object name = value instanceof Map<?, ?> map ? map.get("authority") : value;
+                if (name != null) authorities.add(new SimpleGrantedAuthority(name.toString()));
+            }
+        }
+
+        Boolean status = claims.get(STATUS_CLAIM, Boolean.class);
+        return new UserDetailsImpl(
+                claims.getSubject(), null, status == null || status, authorities
+        );
+    }
+
     public String resolveToken(HttpServletRequest req) {
         String bearerToken = req.getHeader(TOKEN_HEADER);
         if (bearerToken != null && bearerToken.startsWith(TOKEN_TYPE)) {
@@ -74,13 +156,8 @@ public class JwtProvider {
         return null;
     }
 
-    public boolean validateClaims(Claims claims, String token) {
-        try {
-            parseJwtClaims(token);
-            return claims.getExpiration().after(new Date());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
+    // La firma ya se verificó al resolver los claims, aquí solo se revisa la vigencia
+    public boolean validateClaims(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().after(new Date());
     }
 }
\ No newline at end of file
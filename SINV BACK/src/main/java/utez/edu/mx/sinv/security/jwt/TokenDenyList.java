@@ -0,0 +1,82 @@
+package utez.edu.mx.sinv.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import utez.edu.mx.sinv.models.refreshtoken.RefreshTokenRepository;
+import utez.edu.mx.sinv.models.user.UsersRepository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Lista en memoria de usuarios cuyos tokens emitidos antes de cierto momento ya no son válidos
+@Component
+public class TokenDenyList {
+
+    @Value("${jwt.access-expiration:900}")
+    private long expiration;
+
+    private final UsersRepository usersRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final VerifiedTokenCache tokenCache;
+
+    // email -> segundo de la revocación (epoch en segundos, con la misma precisión que iat)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    // session id (claim "sid") -> segundo de la revocación; se consulta en cada petición
+    private final Map<String, Long> revokedSessions = new ConcurrentHashMap<>();
+
+    public TokenDenyList(UsersRepository usersRepository, RefreshTokenRepository refreshTokenRepository,
+                         VerifiedTokenCache tokenCache) {
+        this.usersRepository = usersRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenCache = tokenCache;
+    }
+
+    // Al arrancar se revocan los usuarios deshabilitados y las sesiones cerradas cuyos access tokens
+    // todavía podrían estar vigentes, por si hay tokens previos al reinicio
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDisabledUsers() {
+        long now = System.currentTimeMillis();
+        long second = now / 1000;
+        usersRepository.findDisabledEmails().forEach(email -> revoked.put(email, second));
+        refreshTokenRepository.findSessionIdsRevokedSince(new Date(now - expiration * 1000))
+                .forEach(sessionId -> revokedSessions.put(sessionId, second));
+    }
+
+    public void revoke(String email) {
+        if (email == null) return;
+        long now = System.currentTimeMillis() / 1000;
+        purge(now);
+        revoked.put(email, now);
+        tokenCache.invalidateSubject(email);
+    }
+
+    public void revokeSessions(Collection<String> sessionIds) {
+        long now = System.currentTimeMillis() / 1000;
+        purge(now);
+        sessionIds.forEach(sessionId -> revokedSessions.put(sessionId, now));
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String sessionId = claims.get(JwtProvider.SESSION_CLAIM, String.class);
+        if (sessionId != null && revokedSessions.containsKey(sessionId)) return true;
+
+        Long revokedAt = revoked.get(claims.getSubject());
+        if (revokedAt == null) return false;
+        // Ambos en segundos: un token emitido en el mismo segundo de la revocación (p. ej. el login que sigue
+        // a reactivar la cuenta) sigue siendo válido
+        return claims.getIssuedAt() == null || claims.getIssuedAt().getTime() / 1000 < revokedAt;
+    }
+
+    // Las revocaciones más viejas que la vigencia de un token ya no afectan a ningún token válido
+    private void purge(long now) {
+        long limit = now - expiration;
+        revoked.values().removeIf(revokedAt -> revokedAt < limit);
+        revokedSessions.values().removeIf(revokedAt -> revokedAt < limit);
+    }
+}
@@ -0,0 +1,113 @@
+package utez.edu.mx.sinv.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cache de tokens ya verificados: evita repetir la validación HMAC y la carga del usuario en cada petición
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${jwt.cache.ttl:60}")
+    private long ttlSeconds;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    // La llave es el segmento de firma del token, que identifica de forma única al token firmado
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    public VerifiedToken get(String token) {
+        String signature = signatureOf(token);
+        if (signature == null) return null;
+
+        VerifiedToken entry = entries.get(signature);
+        if (entry == null) return null;
+
+        // Se compara el token completo para no aceptar un payload distinto con la misma firma
+        if (!entry.token.equals(token) || entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(signature, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public VerifiedToken put(String token, Claims claims) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlSeconds * 1000;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+
+        VerifiedToken entry = new VerifiedToken(token, claims, expiresAt);
+        String signature = signatureOf(token);
+        if (signature == null) return entry;
+
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(signature, entry);
+        return entry;
+    }
+
+    public void invalidateSubject(String subject) {
+        entries.values().removeIf(entry -> subject.equals(entry.claims.getSubject()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // Primero se eliminan las entradas vencidas; si no alcanza, se libera una cuarta parte del cache
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        if (entries.size() < maxSize) return;
+
+        int toRemove = Math.max(1, maxSize / 4);
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String signatureOf(String token) {
+        int index = token.lastIndexOf('.');
+        if (index < 0 || index == token.length() - 1) return null;
+        return token.substring(index + 1);
+    }
+
+    public static class VerifiedToken {
+        private final String token;
+        private final Claims claims;
+        private final long expiresAt;
+        private volatile UserDetails principal;
+
+        VerifiedToken(String token, Claims claims, long expiresAt) {
+            this.token = token;
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+
+        public Claims getClaims() {
+            return claims;
+        }
+
+        public UserDetails getPrincipal() {
+            return principal;
+        }
+
+        public void setPrincipal(UserDetails principal) {
+            this.principal = principal;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package utez.edu.mx.sinv.security.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Límite por IP antes de llegar al controlador; se rechaza sin parsear el cuerpo ni tocar la base de datos
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private static final Map<String, String> OPERATIONS = Map.of(
+            "/api/auth/signin", LoginRateLimiter.SIGN_IN,
+            "/api/users/verify-password", LoginRateLimiter.VERIFY_PASSWORD,
+            "/api/users/request-password-reset", LoginRateLimiter.PASSWORD_RESET,
+            "/api/users/reset-password", LoginRateLimiter.PASSWORD_RESET
+    );
+
+    private final LoginRateLimiter limiter;
+
+    public LoginRateLimitFilter(LoginRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !OPERATIONS.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            // getRemoteAddr ya refleja X-Forwarded-For si server.forward-headers-strategy está configurado
+            limiter.acquireForIp(OPERATIONS.get(request.getServletPath()), request.getRemoteAddr());
+        } catch (GlobalExceptionHandler.TooManyRequestsException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,131 @@
+package utez.edu.mx.sinv.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Límite de intentos para las operaciones que cuestan un BCrypt o envían un correo.
+// Hay un balde por IP y otro por cuenta; los baldes inactivos se descartan y el total de
+// llaves está acotado, así una ráfaga con IPs o correos aleatorios no agota la memoria
+@Component
+public class LoginRateLimiter {
+    public static final String SIGN_IN = "signin";
+    public static final String VERIFY_PASSWORD = "verify-password";
+    public static final String PASSWORD_RESET = "password-reset";
+
+    private static final String METRIC = "sinv.security.ratelimit";
+    private static final String TOO_MANY_REQUESTS = "Demasiados intentos, intente más tarde";
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.rate-limit.ip.refill-per-minute:10}")
+    private int ipRefillPerMinute;
+
+    // Por cuenta se reserva una ficha por intento y se devuelve si acierta, para no bloquear al dueño legítimo
+    @Value("${security.rate-limit.account.capacity:5}")
+    private int accountCapacity;
+
+    @Value("${security.rate-limit.account.refill-per-minute:1}")
+    private int accountRefillPerMinute;
+
+    @Value("${security.rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${security.rate-limit.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final MeterRegistry registry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    // Reloj de la expiración por inactividad; las pruebas lo reemplazan para no esperar minutos reales
+    Ticker ticker = Ticker.systemTicker();
+    private Cache<String, TokenBucket> ipBuckets;
+    private Cache<String, TokenBucket> accountBuckets;
+
+    public LoginRateLimiter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    void init() {
+        ipBuckets = newBuckets();
+        accountBuckets = newBuckets();
+        Gauge.builder(METRIC + ".buckets", ipBuckets, Cache::estimatedSize).tag("scope", "ip").register(registry);
+        Gauge.builder(METRIC + ".buckets", accountBuckets, Cache::estimatedSize).tag("scope", "account").register(registry);
+    }
+
+    // Caffeine reparte las llaves en segmentos concurrentes y desaloja las menos usadas al llegar al tope
+    private Cache<String, TokenBucket> newBuckets() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .ticker(ticker)
+                .build();
+    }
+
+    // Cada petición desde la IP consume una ficha
+    public void acquireForIp(String operation, String ip) {
+        if (!enabled || ip == null) return;
+        TokenBucket bucket = ipBuckets.get(operation + ':' + ip, key -> newBucket(ipCapacity, ipRefillPerMinute));
+        enforce("ip", operation, bucket.tryConsume(System.nanoTime()));
+    }
+
+    // Reserva una ficha antes de calcular el hash, de forma atómica: intentos en paralelo contra la
+    // misma cuenta (aunque vengan de IPs distintas) no pueden pasar más allá de la capacidad
+    public void reserveAccount(String operation, String account) {
+        acquireForAccount(operation, account);
+    }
+
+    // Un acierto devuelve la ficha reservada: solo los intentos fallidos gastan el balde de la cuenta
+    public void refundAccount(String operation, String account) {
+        if (!enabled || account == null) return;
+        TokenBucket bucket = accountBuckets.getIfPresent(accountKey(operation, account));
+        if (bucket != null) bucket.refund(System.nanoTime());
+    }
+
+    // Para operaciones donde cada intento cuenta (por ejemplo, el envío de correos)
+    public void acquireForAccount(String operation, String account) {
+        if (!enabled || account == null) return;
+        TokenBucket bucket = accountBuckets.get(accountKey(operation, account),
+                key -> newBucket(accountCapacity, accountRefillPerMinute));
+        enforce("account", operation, bucket.tryConsume(System.nanoTime()));
+    }
+
+    private void enforce(String scope, String operation, long waitNanos) {
+        counter(scope, operation, waitNanos > 0 ? "rejected" : "allowed").increment();
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new GlobalExceptionHandler.TooManyRequestsException(TOO_MANY_REQUESTS, retryAfter);
+        }
+    }
+
+    private Counter counter(String scope, String operation, String result) {
+        return counters.computeIfAbsent(scope + ":" + operation + ":" + result, key -> registry.counter(METRIC,
+                "scope", scope, "operation", operation, "result", result));
+    }
+
+    private static TokenBucket newBucket(int capacity, int refillPerMinute) {
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+        return new TokenBucket(capacity, intervalNanos, System.nanoTime());
+    }
+
+    private static String accountKey(String operation, String account) {
+        return operation + ':' + account.trim().toLowerCase(Locale.ROOT);
+    }
+}
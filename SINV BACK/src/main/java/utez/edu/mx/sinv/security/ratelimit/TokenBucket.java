@@ -0,0 +1,38 @@
+package utez.edu.mx.sinv.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket sin locks: el estado completo es un solo long (el instante teórico en que el
+// balde vuelve a estar lleno) y se actualiza con CAS. Equivale a un balde de "capacity" fichas
+// que recupera una ficha cada "interval" nanosegundos
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, long intervalNanos, long now) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // Consume una ficha; devuelve 0 si se pudo o los nanosegundos a esperar si el balde está vacío
+    public long tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long waitNanos = next - now - burstNanos;
+            if (waitNanos > 0) return waitNanos;
+            if (fullAt.compareAndSet(current, next)) return 0;
+        }
+    }
+
+    // Devuelve una ficha reservada con tryConsume; nunca pasa de la capacidad
+    public void refund(long now) {
+        while (true) {
+            long current = fullAt.get();
+            if (current <= now) return;
+            if (fullAt.compareAndSet(current, Math.max(now, current - intervalNanos))) return;
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package utez.edu.mx.sinv.services;
 
+import jakarta.mail.internet.MimeMessage;
+
 public interface EmailService {
     void sendPasswordResetEmail(String emailTo, String token);
+
+    // Arma el mensaje sin enviarlo, para mandarlo junto con otros por una misma conexión
+    MimeMessage preparePasswordResetEmail(String emailTo, String token);
 }
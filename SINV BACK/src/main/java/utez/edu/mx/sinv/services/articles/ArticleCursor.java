@@ -0,0 +1,38 @@
+package utez.edu.mx.sinv.services.articles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Token opaco de continuación para la paginación por llave de artículos
+public record ArticleCursor(SortMode mode, Long lastId, String lastName) {
+
+    public enum SortMode { ID, NAME }
+
+    public static ArticleCursor first(SortMode mode) {
+        return new ArticleCursor(mode, 0L, "");
+    }
+
+    public String encode() {
+        String raw = mode == SortMode.NAME
+                ? "n:" + lastId + ":" + lastName
+                : "i:" + lastId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ArticleCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts[0].equals("i") && parts.length == 2) {
+                return new ArticleCursor(SortMode.ID, Long.parseLong(parts[1]), "");
+            }
+            if (parts[0].equals("n") && parts.length == 3) {
+                return new ArticleCursor(SortMode.NAME, Long.parseLong(parts[1]), parts[2]);
+            }
+        } catch (IllegalArgumentException e) {
+            // Se reporta abajo como cursor inválido
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+}
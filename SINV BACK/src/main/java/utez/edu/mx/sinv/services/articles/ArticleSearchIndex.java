@@ -0,0 +1,586 @@
+package utez.edu.mx.sinv.services.articles;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utez.edu.mx.sinv.models.articles.ArticleSearchRow;
+import utez.edu.mx.sinv.models.articles.ArticlesRepository;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria sobre nombre y descripción de los artículos.
+// Soporta prefijos, coincidencias aproximadas (Levenshtein) y ordena por tf-idf con mayor peso al nombre.
+@Component
+public class ArticleSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(ArticleSearchIndex.class);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_PREFIX_SCAN = 500;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    // Tope de apariciones que puede sumar la expansión de un prefijo corto ("ca", "de"...)
+    private static final int MAX_PREFIX_POSTINGS = 100_000;
+    private static final int MAX_FUZZY_EXPANSIONS = 20;
+    private static final double NAME_BOOST = 3.0;
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final double FUZZY_WEIGHT = 0.5;
+    // Un término presente en más de esta fracción de los artículos se trata como palabra vacía si la
+    // consulta tiene otros términos; en índices chicos no se descarta nada
+    private static final double COMMON_TERM_RATIO = 0.1;
+    private static final int MIN_COMMON_TERM_DOCS = 1_000;
+    // Margen sobre la cota de poda: los puntajes se acumulan en float y la cota se calcula en double
+    private static final double BOUND_SLACK = 1.0001;
+    private static final int POOLED_ACCUMULATORS = Runtime.getRuntime().availableProcessors();
+
+    private final ArticlesRepository repository;
+
+    @Value("${articles.search.load-page-size:5000}")
+    private int loadPageSize;
+
+    // Lecturas concurrentes; las escrituras (altas, cambios y bajas) son pocas y cortas
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Diccionario ordenado: permite recorrer por rango los términos que empiezan con un prefijo
+    private final TreeMap<String, PostingList> dictionary = new TreeMap<>();
+    // Cada artículo recibe un ordinal denso; las listas de apariciones guardan ordinales y la búsqueda
+    // acumula puntajes en arreglos indexados por ordinal en lugar de mapas con llaves en caja
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] articleIds = new long[16];
+    // Términos de cada artículo, necesarios para quitarlo del índice sin volver a leerlo
+    private String[][] documentTerms = new String[16][];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int ordinalCount;
+    // Acumuladores reutilizables: a un millón de artículos cada uno ocupa ~21 MB, así que solo se guardan tantos como núcleos
+    private final BlockingQueue<Accumulator> accumulators = new ArrayBlockingQueue<>(POOLED_ACCUMULATORS);
+    // Artículos modificados mientras se construye el índice; la carga inicial no debe pisarlos
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private volatile boolean ready;
+    private boolean loading;
+
+    public ArticleSearchIndex(ArticlesRepository repository) {
+        this.repository = repository;
+    }
+
+    public record Hit(long articleId, double score) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Carga inicial por páginas de llave; cada página toma el candado de escritura por separado
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            dictionary.clear();
+            ordinals.clear();
+            articleIds = new long[16];
+            documentTerms = new String[16][];
+            freeCount = 0;
+            ordinalCount = 0;
+            touchedDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long lastId = 0;
+        List<ArticleSearchRow> rows;
+        do {
+            rows = repository.findSearchRowsAfter(lastId, Limit.of(loadPageSize));
+            lock.writeLock().lock();
+            try {
+                for (ArticleSearchRow row : rows) {
+                    if (!touchedDuringLoad.contains(row.id())) {
+                        put(row.id(), row.name(), row.description());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!rows.isEmpty()) lastId = rows.get(rows.size() - 1).id();
+        } while (rows.size() == loadPageSize);
+
+        lock.writeLock().lock();
+        try {
+            loading = false;
+            touchedDuringLoad.clear();
+            ready = true;
+            log.info("Article search index loaded: {} articles, {} terms in {} ms",
+                    ordinals.size(), dictionary.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Los cambios se aplican al confirmar la transacción, para no indexar datos que terminen en rollback
+    public void indexAfterCommit(Long id, String name, String description) {
+        afterCommit(() -> index(id, name, description));
+    }
+
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    public void index(Long id, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            if (loading) touchedDuringLoad.add(id);
+            delete(id);
+            put(id, name, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (loading) touchedDuringLoad.add(id);
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, int limit, boolean fuzzy) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) return List.of();
+        if (terms.size() > MAX_QUERY_TERMS) terms = terms.subList(0, MAX_QUERY_TERMS);
+
+        lock.readLock().lock();
+        try {
+            int totalDocs = ordinals.size();
+            if (totalDocs == 0) return List.of();
+
+            // Cada término de la consulta se expande a términos del diccionario con un peso según el tipo de coincidencia
+            List<List<Expansion>> expanded = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                boolean last = i == terms.size() - 1;
+                List<Expansion> expansions = expand(terms.get(i), last, fuzzy);
+                if (!expansions.isEmpty()) expanded.add(expansions);
+            }
+            if (expanded.isEmpty()) return List.of();
+
+            // Los términos menos frecuentes se evalúan primero: acotan el conjunto de candidatos
+            expanded.sort(Comparator.comparingLong(ArticleSearchIndex::postingCount));
+
+            // Los términos muy comunes no distinguen artículos y obligarían a recorrer casi todo el índice
+            long commonThreshold = Math.max(MIN_COMMON_TERM_DOCS, (long) (totalDocs * COMMON_TERM_RATIO));
+            while (expanded.size() > 1 && postingCount(expanded.get(expanded.size() - 1)) > commonThreshold) {
+                expanded.remove(expanded.size() - 1);
+            }
+
+            int queryTerms = expanded.size();
+            // Cota superior de lo que aún pueden sumar los términos pendientes, desde el término i hasta el final
+            double[] remainingBound = new double[queryTerms + 1];
+            for (int i = queryTerms - 1; i >= 0; i--) {
+                remainingBound[i] = remainingBound[i + 1] + upperBound(expanded.get(i), totalDocs);
+            }
+
+            Accumulator acc = acquireAccumulator();
+            try {
+                acc.start(ordinalCount);
+                for (int i = 0; i < queryTerms; i++) {
+                    List<Expansion> expansions = expanded.get(i);
+                    // Un artículo que aún no es candidato solo puede sumar los términos restantes; si con eso no
+                    // alcanza al k-ésimo mejor puntaje actual, el término solo se evalúa sobre los candidatos.
+                    // La cota solo baja y el k-ésimo solo sube: desde aquí ningún término agrega candidatos
+                    boolean restrictToCandidates = acc.candidateCount > 0
+                            && remainingBound[i] * (queryTerms - i) / queryTerms * BOUND_SLACK
+                            < acc.kthScore(limit, queryTerms);
+                    int term = acc.nextTerm();
+                    for (Expansion expansion : expansions) {
+                        PostingList postings = expansion.postings();
+                        float weight = (float) (expansion.weight() * idf(postings, totalDocs));
+                        if (restrictToCandidates) {
+                            int candidates = acc.candidateCount;
+                            for (int c = 0; c < candidates; c++) {
+                                int ordinal = acc.candidates[c];
+                                int index = postings.indexOf(ordinal);
+                                if (index >= 0) acc.add(ordinal, term, weight * postings.fieldScore(index));
+                            }
+                        } else {
+                            for (int index = 0; index < postings.size(); index++) {
+                                acc.add(postings.ordinal(index), term, weight * postings.fieldScore(index));
+                            }
+                        }
+                    }
+                }
+
+                // Se favorecen los artículos que cubren más términos de la consulta
+                PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+                for (int c = 0; c < acc.candidateCount; c++) {
+                    int ordinal = acc.candidates[c];
+                    double value = acc.score(ordinal, queryTerms);
+                    if (top.size() < limit) {
+                        top.add(new Hit(articleIds[ordinal], value));
+                    } else if (value > top.peek().score()) {
+                        top.poll();
+                        top.add(new Hit(articleIds[ordinal], value));
+                    }
+                }
+
+                List<Hit> hits = new ArrayList<>(top);
+                hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                        .thenComparingLong(Hit::articleId));
+                return hits;
+            } finally {
+                accumulators.offer(acc);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Minúsculas, sin acentos y separado por cualquier carácter que no sea letra o número
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(normalized)) {
+            if (term.isEmpty()) continue;
+            terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term);
+        }
+        return terms;
+    }
+
+    private List<Expansion> expand(String term, boolean last, boolean fuzzy) {
+        List<Expansion> expansions = new ArrayList<>();
+        PostingList exact = dictionary.get(term);
+        if (exact != null) expansions.add(new Expansion(exact, 1.0));
+
+        // El prefijo solo aplica al último término, que es el que el usuario sigue escribiendo
+        if (last && term.length() >= 2) {
+            List<PostingList> candidates = new ArrayList<>();
+            int scanned = 0;
+            for (Map.Entry<String, PostingList> entry : dictionary.tailMap(term, false).entrySet()) {
+                if (!entry.getKey().startsWith(term) || ++scanned > MAX_PREFIX_SCAN) break;
+                candidates.add(entry.getValue());
+            }
+            candidates.sort(Comparator.comparingInt(PostingList::size).reversed());
+            long budget = MAX_PREFIX_POSTINGS;
+            for (PostingList postings : candidates.subList(0, Math.min(candidates.size(), MAX_PREFIX_EXPANSIONS))) {
+                // La expansión más frecuente siempre entra; las demás mientras quede presupuesto
+                if (budget <= 0) break;
+                expansions.add(new Expansion(postings, PREFIX_WEIGHT));
+                budget -= postings.size();
+            }
+        }
+
+        // Solo se buscan variantes aproximadas cuando no hay coincidencia exacta
+        if (fuzzy && exact == null && term.length() >= 4) {
+            int maxEdits = term.length() <= 6 ? 1 : 2;
+            // Se asume que el primer carácter es correcto, lo que reduce el recorrido del diccionario
+            String first = term.substring(0, 1);
+            List<Map.Entry<String, Integer>> matches = new ArrayList<>();
+            for (String candidate : dictionary.subMap(first, true, first + Character.MAX_VALUE, false).keySet()) {
+                if (Math.abs(candidate.length() - term.length()) > maxEdits) continue;
+                int distance = boundedLevenshtein(term, candidate, maxEdits);
+                if (distance > 0 && distance <= maxEdits) matches.add(Map.entry(candidate, distance));
+            }
+            matches.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<String, Integer> match : matches.subList(0, Math.min(matches.size(), MAX_FUZZY_EXPANSIONS))) {
+                expansions.add(new Expansion(dictionary.get(match.getKey()), FUZZY_WEIGHT / match.getValue()));
+            }
+        }
+        return expansions;
+    }
+
+    // Distancia de edición con corte temprano: en cuanto una fila supera el máximo se descarta el candidato
+    static int boundedLevenshtein(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static double idf(PostingList postings, int totalDocs) {
+        return Math.log(1.0 + (double) totalDocs / postings.size());
+    }
+
+    private static double upperBound(List<Expansion> expansions, int totalDocs) {
+        double bound = 0;
+        for (Expansion expansion : expansions) {
+            PostingList postings = expansion.postings();
+            bound = Math.max(bound, expansion.weight() * idf(postings, totalDocs) * postings.maxFieldScore());
+        }
+        return bound;
+    }
+
+    private Accumulator acquireAccumulator() {
+        Accumulator acc = accumulators.poll();
+        return acc != null ? acc : new Accumulator();
+    }
+
+    private static long postingCount(List<Expansion> expansions) {
+        long count = 0;
+        for (Expansion expansion : expansions) count += expansion.postings().size();
+        return count;
+    }
+
+    // Debe llamarse con el candado de escritura
+    private void put(Long id, String name, String description) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (String term : tokenize(name)) frequencies.computeIfAbsent(term, key -> new int[2])[0]++;
+        for (String term : tokenize(description)) frequencies.computeIfAbsent(term, key -> new int[2])[1]++;
+        if (frequencies.isEmpty()) return;
+
+        int ordinal = allocateOrdinal();
+        String[] terms = new String[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            String term = entry.getKey();
+            PostingList postings = dictionary.get(term);
+            if (postings == null) {
+                postings = new PostingList();
+                dictionary.put(term, postings);
+            } else {
+                // Se reutiliza la instancia del diccionario para no duplicar cadenas en memoria
+                term = dictionary.ceilingKey(term);
+            }
+            postings.add(ordinal, entry.getValue()[0], entry.getValue()[1]);
+            terms[i++] = term;
+        }
+        ordinals.put(id, ordinal);
+        articleIds[ordinal] = id;
+        documentTerms[ordinal] = terms;
+    }
+
+    // Debe llamarse con el candado de escritura
+    private void delete(Long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) return;
+        for (String term : documentTerms[ordinal]) {
+            PostingList postings = dictionary.get(term);
+            if (postings != null && postings.remove(ordinal) && postings.size() == 0) {
+                dictionary.remove(term);
+            }
+        }
+        documentTerms[ordinal] = null;
+        if (freeCount == freeOrdinals.length) freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    // Los ordinales liberados se reutilizan para que los arreglos no crezcan con las bajas
+    private int allocateOrdinal() {
+        if (freeCount > 0) return freeOrdinals[--freeCount];
+        if (ordinalCount == articleIds.length) {
+            int capacity = articleIds.length + (articleIds.length >> 1);
+            articleIds = Arrays.copyOf(articleIds, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+        }
+        return ordinalCount++;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Expansion(PostingList postings, double weight) {
+    }
+
+    // Puntajes de una búsqueda en arreglos indexados por ordinal. Las marcas de generación evitan limpiar
+    // los arreglos entre búsquedas y entre términos: una posición solo vale si su marca es la actual
+    private static class Accumulator {
+        private float[] total = new float[0];
+        // Mejor valor del término actual; un término expandido a varias palabras suma solo su mejor coincidencia
+        private float[] termBest = new float[0];
+        private byte[] matched = new byte[0];
+        private int[] searchMark = new int[0];
+        private int[] termMark = new int[0];
+        private int[] candidates = new int[0];
+        private int candidateCount;
+        private float[] heap = new float[0];
+        private int generation;
+        private int search;
+
+        void start(int ordinals) {
+            if (total.length < ordinals) {
+                total = new float[ordinals];
+                termBest = new float[ordinals];
+                matched = new byte[ordinals];
+                searchMark = new int[ordinals];
+                termMark = new int[ordinals];
+                candidates = new int[ordinals];
+                generation = 0;
+            } else if (generation > Integer.MAX_VALUE - MAX_QUERY_TERMS - 1) {
+                Arrays.fill(searchMark, 0);
+                Arrays.fill(termMark, 0);
+                generation = 0;
+            }
+            search = ++generation;
+            candidateCount = 0;
+        }
+
+        int nextTerm() {
+            return ++generation;
+        }
+
+        void add(int ordinal, int term, float value) {
+            if (searchMark[ordinal] != search) {
+                searchMark[ordinal] = search;
+                total[ordinal] = 0;
+                matched[ordinal] = 0;
+                candidates[candidateCount++] = ordinal;
+            }
+            if (termMark[ordinal] != term) {
+                termMark[ordinal] = term;
+                termBest[ordinal] = value;
+                total[ordinal] += value;
+                matched[ordinal]++;
+            } else if (value > termBest[ordinal]) {
+                total[ordinal] += value - termBest[ordinal];
+                termBest[ordinal] = value;
+            }
+        }
+
+        double score(int ordinal, int queryTerms) {
+            return (double) total[ordinal] * matched[ordinal] / queryTerms;
+        }
+
+        // k-ésimo mejor puntaje parcial entre los candidatos (montículo mínimo de tamaño k); los puntajes
+        // solo crecen, así que es una cota inferior del corte final
+        double kthScore(int k, int queryTerms) {
+            if (candidateCount < k) return Double.NEGATIVE_INFINITY;
+            if (heap.length < k) heap = new float[k];
+            int size = 0;
+            for (int c = 0; c < candidateCount; c++) {
+                float value = (float) score(candidates[c], queryTerms);
+                if (size < k) {
+                    int i = size++;
+                    while (i > 0 && heap[(i - 1) >>> 1] > value) {
+                        heap[i] = heap[(i - 1) >>> 1];
+                        i = (i - 1) >>> 1;
+                    }
+                    heap[i] = value;
+                } else if (value > heap[0]) {
+                    int i = 0;
+                    while (true) {
+                        int child = 2 * i + 1;
+                        if (child >= size) break;
+                        if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                        if (heap[child] >= value) break;
+                        heap[i] = heap[child];
+                        i = child;
+                    }
+                    heap[i] = value;
+                }
+            }
+            return heap[0];
+        }
+    }
+
+    // Lista de apariciones ordenada por ordinal en arreglos primitivos: 8 bytes por aparición.
+    // Los ordinales nuevos son crecientes, así que el caso común de alta es agregar al final.
+    static class PostingList {
+        private int[] ordinals = new int[2];
+        // Frecuencia en el nombre en los 16 bits altos y en la descripción en los 16 bajos
+        private int[] frequencies = new int[2];
+        private int size;
+        // Cota superior del puntaje por campo; no baja con las bajas, lo que la mantiene válida
+        private float maxFieldScore;
+
+        int size() {
+            return size;
+        }
+
+        int ordinal(int index) {
+            return ordinals[index];
+        }
+
+        int indexOf(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal);
+        }
+
+        float maxFieldScore() {
+            return maxFieldScore;
+        }
+
+        float fieldScore(int index) {
+            return packedScore(frequencies[index]);
+        }
+
+        private static float packedScore(int packed) {
+            return (float) (NAME_BOOST * Math.sqrt(packed >>> 16) + Math.sqrt(packed & 0xFFFF));
+        }
+
+        void add(int ordinal, int nameFrequency, int descriptionFrequency) {
+            int packed = (Math.min(nameFrequency, 0xFFFF) << 16) | Math.min(descriptionFrequency, 0xFFFF);
+            maxFieldScore = Math.max(maxFieldScore, packedScore(packed));
+            int index = size == 0 || ordinals[size - 1] < ordinal ? -(size + 1) : indexOf(ordinal);
+            if (index >= 0) {
+                frequencies[index] = packed;
+                return;
+            }
+            int insertAt = -(index + 1);
+            if (size == ordinals.length) {
+                int capacity = ordinals.length + (ordinals.length >> 1) + 1;
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+            System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+            ordinals[insertAt] = ordinal;
+            frequencies[insertAt] = packed;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int index = indexOf(ordinal);
+            if (index < 0) return false;
+            System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+            System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
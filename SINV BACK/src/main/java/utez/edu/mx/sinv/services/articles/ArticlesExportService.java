@@ -0,0 +1,162 @@
+package utez.edu.mx.sinv.services.articles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import utez.edu.mx.sinv.models.articles.ArticleExportRow;
+import utez.edu.mx.sinv.utils.CsvUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Exportación del inventario fila por fila: en memoria solo vive el artículo que se está escribiendo
+@Service
+public class ArticlesExportService {
+    private static final String CSV_HEADER = "id,name,description,status,categoryId,categoryName,storageIds,storageIdentifiers";
+    private static final int FLUSH_EVERY = 500;
+    private static final String EXPORT_QUERY = "SELECT new utez.edu.mx.sinv.models.articles.ArticleExportRow(" +
+            "a.id, a.name, a.description, a.status, c.id, c.name, s.id, s.identifier) " +
+            "FROM Articles a JOIN a.category c LEFT JOIN a.storages s ORDER BY a.id";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    // Connector/J solo entrega las filas una por una con fetch size Integer.MIN_VALUE (sin eso carga todo el
+    // resultado); otros drivers lo rechazan (H2) y usan un fetch size positivo para leer por bloques
+    public ArticlesExportService(EntityManager entityManager,
+                                 EntityManagerFactory entityManagerFactory,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${articles.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        boolean mysql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+        this.fetchSize = mysql ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    public void writeCsv(OutputStream out) {
+        export(out, (writer, article) -> {
+            writer.write(String.join(",",
+                    String.valueOf(article.id),
+                    CsvUtils.escape(article.name),
+                    CsvUtils.escape(article.description),
+                    String.valueOf(article.status),
+                    String.valueOf(article.categoryId),
+                    CsvUtils.escape(article.categoryName),
+                    article.storageIds.stream().map(String::valueOf).collect(Collectors.joining(";")),
+                    CsvUtils.escape(String.join(";", article.storageIdentifiers))));
+            writer.write('\n');
+        }, CSV_HEADER);
+    }
+
+    public void writeNdjson(OutputStream out) {
+        export(out, (writer, article) -> {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", article.id);
+            json.put("name", article.name);
+            json.put("description", article.description);
+            json.put("status", article.status);
+            json.put("categoryId", article.categoryId);
+            json.put("categoryName", article.categoryName);
+            json.put("storageIds", article.storageIds);
+            json.put("storageIdentifiers", article.storageIdentifiers);
+            writer.write(objectMapper.writeValueAsString(json));
+            writer.write('\n');
+        }, null);
+    }
+
+    // La consulta ordena por id, así que las filas de un mismo artículo (una por almacén) llegan juntas
+    private void export(OutputStream out, RowWriter rowWriter, String header) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ArticleExportRow> rows = streamRows()) {
+                if (header != null) {
+                    writer.write(header);
+                    writer.write('\n');
+                }
+
+                Iterator<ArticleExportRow> iterator = rows.iterator();
+                ExportedArticle current = null;
+                int written = 0;
+                while (iterator.hasNext()) {
+                    ArticleExportRow row = iterator.next();
+                    if (current == null || !current.id.equals(row.id())) {
+                        if (current != null) {
+                            rowWriter.write(writer, current);
+                            if (++written % FLUSH_EVERY == 0) writer.flush();
+                        }
+                        current = new ExportedArticle(row);
+                    }
+                    current.addStorage(row);
+                }
+                if (current != null) rowWriter.write(writer, current);
+                writer.flush();
+            } catch (IOException e) {
+                // Normalmente el cliente cerró la conexión; se aborta la lectura y se libera el cursor
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Stream<ArticleExportRow> streamRows() {
+        return entityManager.createQuery(EXPORT_QUERY, ArticleExportRow.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Writer writer, ExportedArticle article) throws IOException;
+    }
+
+    private static class ExportedArticle {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean status;
+        private final Long categoryId;
+        private final String categoryName;
+        private final List<Long> storageIds = new ArrayList<>();
+        private final List<String> storageIdentifiers = new ArrayList<>();
+
+        ExportedArticle(ArticleExportRow row) {
+            this.id = row.id();
+            this.name = row.name();
+            this.description = row.description();
+            this.status = row.status();
+            this.categoryId = row.categoryId();
+            this.categoryName = row.categoryName();
+        }
+
+        void addStorage(ArticleExportRow row) {
+            if (row.storageId() == null) return; // artículo sin almacenes (LEFT JOIN)
+            storageIds.add(row.storageId());
+            storageIdentifiers.add(row.storageIdentifier());
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package utez.edu.mx.sinv.services.articles;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.controllers.articles.dto.ArticleImportResultDto;
+import utez.edu.mx.sinv.controllers.articles.dto.ArticlesDto;
+import utez.edu.mx.sinv.controllers.articles.dto.ImportRowErrorDto;
+import utez.edu.mx.sinv.models.articles.ArticlesRepository;
+import utez.edu.mx.sinv.models.categories.Categories;
+import utez.edu.mx.sinv.models.categories.CategoriesRepository;
+import utez.edu.mx.sinv.models.storage.StorageCategoryRef;
+import utez.edu.mx.sinv.models.storage.StorageRepository;
+import utez.edu.mx.sinv.utils.CsvUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Importación masiva de artículos: valida por bloques con consultas por conjunto e inserta con JDBC batch
+@Service
+public class ArticlesImportService {
+    // Articles usa IDENTITY, lo que desactiva el batch de Hibernate; por eso se inserta con JDBC directo
+    private static final String INSERT_ARTICLE =
+            "INSERT INTO articles (name, description, status, category_id) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_STORAGE_LINK =
+            "INSERT INTO storage_has_articles (article_id, storage_id) VALUES (?, ?)";
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ArticlesRepository repository;
+    private final CategoriesRepository categoriesRepository;
+    private final StorageRepository storageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArticleSearchIndex searchIndex;
+    private final Cache secondLevelCache;
+
+    @Value("${articles.import.batch-size:500}")
+    private int batchSize;
+
+    public ArticlesImportService(ArticlesRepository repository,
+                                 CategoriesRepository categoriesRepository,
+                                 StorageRepository storageRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ArticleSearchIndex searchIndex,
+                                 EntityManagerFactory entityManagerFactory) {
+        this.repository = repository;
+        this.categoriesRepository = categoriesRepository;
+        this.storageRepository = storageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.searchIndex = searchIndex;
+        this.secondLevelCache = entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    public ResponseEntity<ApiResponse> importArticles(List<ArticlesDto> articles) {
+        ImportRun run = new ImportRun();
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+        int rowNumber = 0;
+        for (ArticlesDto dto : articles) {
+            chunk.add(new ImportRow(++rowNumber, dto));
+            if (chunk.size() >= batchSize) {
+                processChunk(chunk, run);
+                chunk.clear();
+            }
+        }
+        processChunk(chunk, run);
+        return run.toResponse();
+    }
+
+    // Formato: name,description,categoryId,storageIds(separados por ;),status. Con encabezado las columnas se
+    // toman por nombre y las desconocidas se ignoran, así que también se acepta el CSV de la exportación
+    public ResponseEntity<ApiResponse> importCsv(MultipartFile file) {
+        ImportRun run = new ImportRun();
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            // BOM de Excel: se descarta antes de leer para que no quede pegado al primer campo
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') reader.reset();
+            CsvUtils.RecordReader records = new CsvUtils.RecordReader(reader);
+            CsvColumns columns = CsvColumns.POSITIONAL;
+            boolean first = true;
+            while (true) {
+                List<String> fields;
+                try {
+                    fields = records.next();
+                } catch (IllegalArgumentException e) {
+                    // Una comilla sin cerrar consume el resto del archivo
+                    run.fail(records.recordLine(), null, e.getMessage());
+                    break;
+                }
+                if (fields == null) break;
+                int lineNumber = records.recordLine();
+
+                if (first) {
+                    first = false;
+                    if (CsvColumns.isHeader(fields)) {
+                        columns = CsvColumns.fromHeader(fields);
+                        if (columns == null) {
+                            return new ResponseEntity<>(
+                                    new ApiResponse("The header must include name, description and categoryId", HttpStatus.BAD_REQUEST),
+                                    HttpStatus.BAD_REQUEST);
+                        }
+                        continue;
+                    }
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) continue;
+
+                try {
+                    chunk.add(new ImportRow(lineNumber, parseCsvRow(fields, columns)));
+                } catch (IllegalArgumentException e) {
+                    run.fail(lineNumber, null, e.getMessage());
+                    continue;
+                }
+
+                if (chunk.size() >= batchSize) {
+                    processChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            return new ResponseEntity<>(
+                    new ApiResponse("Could not read the uploaded file", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        processChunk(chunk, run);
+        return run.toResponse();
+    }
+
+    private ArticlesDto parseCsvRow(List<String> fields, CsvColumns columns) {
+        if (fields.size() <= columns.lastRequired()) {
+            throw new IllegalArgumentException("Expected at least name, description and categoryId");
+        }
+
+        ArticlesDto dto = new ArticlesDto();
+        dto.setName(fields.get(columns.name()).trim());
+        dto.setDescription(fields.get(columns.description()).trim());
+        String storageIds = columns.field(fields, columns.storageIds());
+        try {
+            dto.setCategoryId(Long.parseLong(fields.get(columns.categoryId()).trim()));
+            if (!storageIds.isBlank()) {
+                dto.setStorageIds(Arrays.stream(storageIds.split(";"))
+                        .map(String::trim)
+                        .filter(value -> !value.isEmpty())
+                        .map(Long::parseLong)
+                        .collect(Collectors.toSet()));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid numeric id");
+        }
+        String status = columns.field(fields, columns.status());
+        if (!status.isBlank()) {
+            dto.setStatus(Boolean.parseBoolean(status.trim()));
+        }
+        return dto;
+    }
+
+    // Valida todo el bloque con tres consultas (nombres, categorías y almacenes) y lo inserta en una transacción
+    private void processChunk(List<ImportRow> chunk, ImportRun run) {
+        if (chunk.isEmpty()) return;
+
+        Set<String> names = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> storageIds = new HashSet<>();
+        for (ImportRow row : chunk) {
+            ArticlesDto dto = row.dto();
+            if (dto.getName() != null) names.add(dto.getName().trim());
+            if (dto.getCategoryId() != null) categoryIds.add(dto.getCategoryId());
+            if (dto.getStorageIds() != null) storageIds.addAll(dto.getStorageIds());
+        }
+
+        // La comparación ignora mayúsculas, igual que la collation de MySQL
+        Set<String> existingNames = names.isEmpty() ? Set.of() : repository.findExistingNames(names).stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        Set<Long> foundCategories = categoriesRepository.findAllById(categoryIds).stream()
+                .map(Categories::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Long> storageCategories = storageIds.isEmpty() ? Map.of() : storageRepository.findCategoryRefs(storageIds).stream()
+                .collect(Collectors.toMap(StorageCategoryRef::storageId, StorageCategoryRef::categoryId));
+
+        List<ImportRow> valid = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            String error = validate(row.dto(), existingNames, foundCategories, storageCategories, run.seenNames);
+            if (error != null) {
+                run.fail(row.number(), row.dto().getName(), error);
+            } else {
+                run.seenNames.add(row.dto().getName().trim().toLowerCase(Locale.ROOT));
+                valid.add(row);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> insert(valid));
+            // Los INSERT por JDBC no pasan por Hibernate: las consultas cacheadas sobre articles quedarían viejas
+            secondLevelCache.evictQueryRegions();
+            run.imported += valid.size();
+        }
+    }
+
+    private String validate(ArticlesDto dto, Set<String> existingNames, Set<Long> foundCategories,
+                            Map<Long, Long> storageCategories, Set<String> seenNames) {
+        if (dto.getName() == null || dto.getName().isBlank()) return "Name is required";
+        if (dto.getDescription() == null || dto.getDescription().isBlank()) return "Description is required";
+
+        String name = dto.getName().trim();
+        if (name.length() > MAX_NAME_LENGTH) return "Name is too long";
+        if (dto.getDescription().length() > MAX_DESCRIPTION_LENGTH) return "Description is too long";
+
+        String key = name.toLowerCase(Locale.ROOT);
+        if (existingNames.contains(key)) return "Article with this name already exists";
+        if (seenNames.contains(key)) return "Duplicated name in import";
+
+        if (dto.getCategoryId() == null || !foundCategories.contains(dto.getCategoryId())) {
+            return "Category not found";
+        }
+
+        if (dto.getStorageIds() != null) {
+            for (Long storageId : dto.getStorageIds()) {
+                Long storageCategory = storageCategories.get(storageId);
+                if (storageCategory == null) return "Storage not found: " + storageId;
+                if (!storageCategory.equals(dto.getCategoryId())) {
+                    return "Article category doesn't match storage category for storage: " + storageId;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void insert(List<ImportRow> rows) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_ARTICLE, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ArticlesDto dto = rows.get(i).dto();
+                        ps.setString(1, dto.getName().trim());
+                        ps.setString(2, dto.getDescription());
+                        ps.setBoolean(3, dto.getStatus() == null || dto.getStatus());
+                        ps.setLong(4, dto.getCategoryId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+
+        // Las llaves generadas llegan en el mismo orden que las filas del batch
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<long[]> links = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            long articleId = ((Number) keys.get(i).values().iterator().next()).longValue();
+            ArticlesDto dto = rows.get(i).dto();
+            searchIndex.indexAfterCommit(articleId, dto.getName().trim(), dto.getDescription());
+            Set<Long> storages = dto.getStorageIds();
+            if (storages != null) {
+                for (Long storageId : storages) {
+                    links.add(new long[]{articleId, storageId});
+                }
+            }
+        }
+
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_STORAGE_LINK, links, batchSize, (ps, link) -> {
+                ps.setLong(1, link[0]);
+                ps.setLong(2, link[1]);
+            });
+        }
+    }
+
+    private record ImportRow(int number, ArticlesDto dto) {
+    }
+
+    // Posición de cada columna conocida; -1 si el encabezado no la incluye
+    private record CsvColumns(int name, int description, int categoryId, int storageIds, int status) {
+        static final CsvColumns POSITIONAL = new CsvColumns(0, 1, 2, 3, 4);
+
+        static boolean isHeader(List<String> fields) {
+            return fields.stream().anyMatch(field -> field.trim().equalsIgnoreCase("name"));
+        }
+
+        static CsvColumns fromHeader(List<String> header) {
+            int[] positions = {-1, -1, -1, -1, -1};
+            for (int i = 0; i < header.size(); i++) {
+                switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "name" -> positions[0] = i;
+                    case "description" -> positions[1] = i;
+                    case "categoryid" -> positions[2] = i;
+                    case "storageids" -> positions[3] = i;
+                    case "status" -> positions[4] = i;
+                    default -> {
+                        // Columnas solo informativas de la exportación (id, categoryName, storageIdentifiers)
+                    }
+                }
+            }
+            if (positions[0] < 0 || positions[1] < 0 || positions[2] < 0) return null;
+            return new CsvColumns(positions[0], positions[1], positions[2], positions[3], positions[4]);
+        }
+
+        int lastRequired() {
+            return Math.max(name, Math.max(description, categoryId));
+        }
+
+        String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : "";
+        }
+    }
+
+    // Acumula el resultado de una importación completa
+    private static class ImportRun {
+        private final Set<String> seenNames = new HashSet<>();
+        private final List<ImportRowErrorDto> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        void fail(int row, String name, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowErrorDto(row, name, message));
+            }
+        }
+
+        ResponseEntity<ApiResponse> toResponse() {
+            ArticleImportResultDto result = new ArticleImportResultDto(imported + failed, imported, failed, errors);
+            HttpStatus status = imported == 0 && failed > 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+            return new ResponseEntity<>(new ApiResponse(result, status), status);
+        }
+    }
+}
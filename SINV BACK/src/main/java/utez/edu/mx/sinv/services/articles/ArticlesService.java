@@ -1,40 +1,66 @@
 package utez.edu.mx.sinv.services.articles;
 
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.controllers.articles.dto.ArticleCursorPageDto;
 import utez.edu.mx.sinv.controllers.articles.dto.ArticleResponseDto;
+import utez.edu.mx.sinv.controllers.articles.dto.ArticleSearchHitDto;
 import utez.edu.mx.sinv.controllers.articles.dto.ArticlesDto;
 import utez.edu.mx.sinv.controllers.articles.dto.CategorySimpleDto;
 import utez.edu.mx.sinv.controllers.articles.dto.StorageSimpleDto;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+import utez.edu.mx.sinv.models.articles.ArticleStorageRow;
+import utez.edu.mx.sinv.models.articles.ArticleSummary;
 import utez.edu.mx.sinv.models.articles.Articles;
 import utez.edu.mx.sinv.models.articles.ArticlesRepository;
+import utez.edu.mx.sinv.models.articles.ArticlesSpecifications;
 import utez.edu.mx.sinv.models.categories.Categories;
 import utez.edu.mx.sinv.models.categories.CategoriesRepository;
 import utez.edu.mx.sinv.models.storage.Storage;
 import utez.edu.mx.sinv.models.storage.StorageRepository;
+import utez.edu.mx.sinv.utils.ConflictUtils;
+import utez.edu.mx.sinv.utils.ETagUtils;
+import utez.edu.mx.sinv.utils.PageableUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ArticlesService {
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "status");
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final String DUPLICATED_NAME = "Article with this name already exists";
     private final ArticlesRepository repository;
     private final CategoriesRepository categoriesRepository;
     private final StorageRepository storageRepository;
+    private final ArticleSearchIndex searchIndex;
 
     public ArticlesService(ArticlesRepository repository,
                            CategoriesRepository categoriesRepository,
-                           StorageRepository storageRepository) {
+                           StorageRepository storageRepository,
+                           ArticleSearchIndex searchIndex) {
         this.repository = repository;
         this.categoriesRepository = categoriesRepository;
         this.storageRepository = storageRepository;
+        this.searchIndex = searchIndex;
     }
 
     @Transactional(readOnly = true)
@@ -44,6 +70,105 @@ public class ArticlesService {
                 HttpStatus.OK);
     }
 
+    // El listado completo incluye la categoría de cada artículo
+    @Transactional(readOnly = true)
+    public String listETag() {
+        return ETagUtils.of("articles", repository.findVersionStamp(), categoriesRepository.findVersionStamp());
+    }
+
+    @Transactional(readOnly = true)
+    public String detailETag(Long id) {
+        return repository.findVersionStamp(id)
+                .map(stamp -> ETagUtils.of("article", stamp.parts()))
+                .orElse(null);
+    }
+
+    // Listado paginado con filtros resueltos en la consulta
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponse> findPage(String name, Boolean status, Long categoryId,
+                                                Long storageId, Pageable pageable) {
+        List<Specification<Articles>> filters = new ArrayList<>();
+        if (name != null && !name.isBlank()) filters.add(ArticlesSpecifications.nameContains(name));
+        if (status != null) filters.add(ArticlesSpecifications.hasStatus(status));
+        if (categoryId != null) filters.add(ArticlesSpecifications.inCategory(categoryId));
+        if (storageId != null) filters.add(ArticlesSpecifications.inStorage(storageId));
+
+        Page<Articles> page = repository.findAll(
+                Specification.allOf(filters),
+                PageableUtils.sanitize(pageable, SORTABLE_FIELDS, Sort.by("id")));
+        return new ResponseEntity<>(
+                new ApiResponse(new PagedModel<>(page), HttpStatus.OK),
+                HttpStatus.OK);
+    }
+
+    // Paginación por llave: el costo de cada página no depende de qué tan profundo se navegue
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponse> findAfter(String cursor, String sort, int size) {
+        ArticleCursor current;
+        try {
+            current = cursor != null && !cursor.isBlank()
+                    ? ArticleCursor.decode(cursor)
+                    : ArticleCursor.first("name".equalsIgnoreCase(sort)
+                    ? ArticleCursor.SortMode.NAME
+                    : ArticleCursor.SortMode.ID);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                    new ApiResponse("Invalid cursor", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        int pageSize = Math.min(Math.max(size, 1), PageableUtils.MAX_PAGE_SIZE);
+        // Se pide un registro extra para saber si hay otra página sin hacer un COUNT
+        Limit limit = Limit.of(pageSize + 1);
+        List<Articles> rows = current.mode() == ArticleCursor.SortMode.NAME
+                ? repository.findNextByName(current.lastName(), current.lastId(), limit)
+                : repository.findNextById(current.lastId(), limit);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Articles> items = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Articles last = items.get(items.size() - 1);
+            nextCursor = new ArticleCursor(current.mode(), last.getId(), last.getName()).encode();
+        }
+
+        return new ResponseEntity<>(
+                new ApiResponse(new ArticleCursorPageDto(items, nextCursor, hasNext), HttpStatus.OK),
+                HttpStatus.OK);
+    }
+
+    // La relevancia se resuelve en el índice en memoria; la base de datos solo completa los resultados
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponse> search(String query, int limit, boolean fuzzy) {
+        if (query == null || query.isBlank()) {
+            return new ResponseEntity<>(
+                    new ApiResponse("Search query is required", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (!searchIndex.isReady()) {
+            throw new GlobalExceptionHandler.ServiceUnavailableException("Search index is still loading");
+        }
+
+        List<ArticleSearchIndex.Hit> hits = searchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS), fuzzy);
+        if (hits.isEmpty()) {
+            return new ResponseEntity<>(new ApiResponse(List.of(), HttpStatus.OK), HttpStatus.OK);
+        }
+
+        List<Long> ids = hits.stream().map(ArticleSearchIndex.Hit::articleId).toList();
+        Map<Long, ArticleSummary> summaries = repository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(ArticleSummary::id, Function.identity()));
+        Map<Long, Set<StorageSimpleDto>> storages = groupStorages(repository.findStorageRowsByArticleIds(ids));
+        List<ArticleSearchHitDto> results = hits.stream()
+                .filter(hit -> summaries.containsKey(hit.articleId()))
+                .map(hit -> new ArticleSearchHitDto(
+                        convertToArticleResponseDto(summaries.get(hit.articleId()), storages), hit.score()))
+                .toList();
+        return new ResponseEntity<>(
+                new ApiResponse(results, HttpStatus.OK),
+                HttpStatus.OK);
+    }
+
     @Transactional(readOnly = true)
     public ResponseEntity<ApiResponse> findById(Long id) {
         Optional<Articles> article = repository.findById(id);
@@ -65,14 +190,9 @@ public class ArticlesService {
                     HttpStatus.BAD_REQUEST);
         }
 
-        // Validar que el artículo no exista con el mismo nombre
-        if (repository.existsByName(dto.getName())) {
-            return new ResponseEntity<>(
-                    new ApiResponse("Article with this name already exists", HttpStatus.BAD_REQUEST),
-                    HttpStatus.BAD_REQUEST);
-        }
-
         Articles article = dto.toEntity();
+        // Un alta nunca reutiliza el id del cuerpo: con id, saveAndFlush haría merge sobre un artículo existente
+        article.setId(null);
         article.setCategory(category.get());
 
         // Si hay almacenes especificados, validarlos y asignarlos
@@ -99,7 +219,8 @@ public class ArticlesService {
             article.setStorages((Set<Storage>) storages);
         }
 
-        Articles savedArticle = repository.save(article);
+        Articles savedArticle = ConflictUtils.saveUnique(() -> repository.saveAndFlush(article), DUPLICATED_NAME);
+        searchIndex.indexAfterCommit(savedArticle.getId(), savedArticle.getName(), savedArticle.getDescription());
         return new ResponseEntity<>(
                 new ApiResponse(savedArticle, HttpStatus.CREATED),
                 HttpStatus.CREATED);
@@ -115,18 +236,12 @@ public class ArticlesService {
                     HttpStatus.BAD_REQUEST);
         }
 
-        // 2. Validar que el artículo no exista con el mismo nombre
-        if (repository.existsByName(dto.getName())) {
-            return new ResponseEntity<>(
-                    new ApiResponse("Article with this name already exists", HttpStatus.BAD_REQUEST),
-                    HttpStatus.BAD_REQUEST);
-        }
-
-        // 3. Convertir DTO a entidad
+        // 2. Convertir DTO a entidad (el nombre duplicado lo rechaza el índice único al guardar)
         Articles article = dto.toEntity();
+        article.setId(null);
         article.setCategory(category.get());
 
-        // 4. Manejar storages si están presentes
+        // 3. Manejar storages si están presentes
         if (dto.getStorageIds() != null && !dto.getStorageIds().isEmpty()) {
             List<Storage> storages = storageRepository.findAllById(dto.getStorageIds());
 
@@ -150,10 +265,11 @@ public class ArticlesService {
             article.setStorages(new HashSet<>(storages));
         }
 
-        // 5. Guardar el artículo
-        Articles savedArticle = repository.save(article);
+        // 4. Guardar el artículo
+        Articles savedArticle = ConflictUtils.saveUnique(() -> repository.saveAndFlush(article), DUPLICATED_NAME);
+        searchIndex.indexAfterCommit(savedArticle.getId(), savedArticle.getName(), savedArticle.getDescription());
 
-        // 6. Convertir a DTO de respuesta para evitar referencia circular
+        // 5. Convertir a DTO de respuesta para evitar referencia circular
         ArticleResponseDto responseDto = convertToArticleResponseDto(savedArticle);
 
         return new ResponseEntity<>(
@@ -168,6 +284,7 @@ public class ArticlesService {
         dto.setName(article.getName());
         dto.setDescription(article.getDescription());
         dto.setStatus(article.getStatus());
+        dto.setVersion(article.getVersion());
 
         // Convertir categoría a DTO simple
         CategorySimpleDto categoryDto = new CategorySimpleDto();
@@ -187,6 +304,36 @@ public class ArticlesService {
         return dto;
     }
 
+    // Misma forma que la conversión desde la entidad: sin almacenes, storages queda en null
+    private ArticleResponseDto convertToArticleResponseDto(ArticleSummary summary, Map<Long, Set<StorageSimpleDto>> storages) {
+        ArticleResponseDto dto = new ArticleResponseDto();
+        dto.setId(summary.id());
+        dto.setName(summary.name());
+        dto.setDescription(summary.description());
+        dto.setStatus(summary.status());
+        dto.setVersion(summary.version());
+
+        CategorySimpleDto categoryDto = new CategorySimpleDto();
+        categoryDto.setId(summary.categoryId());
+        categoryDto.setName(summary.categoryName());
+        categoryDto.setStatus(summary.categoryStatus());
+        dto.setCategory(categoryDto);
+        dto.setStorages(storages.get(summary.id()));
+        return dto;
+    }
+
+    private static Map<Long, Set<StorageSimpleDto>> groupStorages(List<ArticleStorageRow> rows) {
+        Map<Long, Set<StorageSimpleDto>> storages = new HashMap<>();
+        for (ArticleStorageRow row : rows) {
+            StorageSimpleDto dto = new StorageSimpleDto();
+            dto.setId(row.storageId());
+            dto.setIdentifier(row.identifier());
+            dto.setStatus(row.status());
+            storages.computeIfAbsent(row.articleId(), key -> new HashSet<>()).add(dto);
+        }
+        return storages;
+    }
+
     // Método auxiliar para convertir Storage a DTO simple
     private StorageSimpleDto convertToStorageSimpleDto(Storage storage) {
         StorageSimpleDto dto = new StorageSimpleDto();
@@ -206,6 +353,7 @@ public class ArticlesService {
         }
 
         Articles existingArticle = existingArticleOpt.get();
+        ConflictUtils.checkVersion(dto.getVersion(), existingArticle.getVersion());
 
         // Validar categoría
         Optional<Categories> category = categoriesRepository.findById(dto.getCategoryId());
@@ -246,7 +394,8 @@ public class ArticlesService {
             existingArticle.getStorages().addAll(storages);
         }
 
-        Articles updatedArticle = repository.save(existingArticle);
+        Articles updatedArticle = ConflictUtils.saveUnique(() -> repository.saveAndFlush(existingArticle), DUPLICATED_NAME);
+        searchIndex.indexAfterCommit(updatedArticle.getId(), updatedArticle.getName(), updatedArticle.getDescription());
         return new ResponseEntity<>(
                 new ApiResponse(updatedArticle, HttpStatus.OK),
                 HttpStatus.OK);
@@ -271,15 +420,19 @@ public class ArticlesService {
 
     @Transactional(readOnly = true)
     public ResponseEntity<ApiResponse> findByStorage(Long storageId) {
-        Optional<Storage> storage = storageRepository.findById(storageId);
-        if (storage.isEmpty()) {
+        if (!storageRepository.existsById(storageId)) {
             return new ResponseEntity<>(
                     new ApiResponse("Storage not found", HttpStatus.NOT_FOUND),
                     HttpStatus.NOT_FOUND);
         }
 
+        // Dos SELECT (artículos con su categoría y sus almacenes), en lugar de recorrer la colección perezosa de cada artículo
+        Map<Long, Set<StorageSimpleDto>> storages = groupStorages(repository.findStorageRowsByStorageId(storageId));
+        List<ArticleResponseDto> articles = repository.findSummariesByStorageId(storageId).stream()
+                .map(summary -> convertToArticleResponseDto(summary, storages))
+                .toList();
         return new ResponseEntity<>(
-                new ApiResponse(storage.get().getArticles(), HttpStatus.OK),
+                new ApiResponse(articles, HttpStatus.OK),
                 HttpStatus.OK);
     }
 
@@ -312,7 +465,11 @@ public class ArticlesService {
             }
         }
 
-        article.getStorages().addAll(storages);
+        // Se modifica la colección administrada para que Hibernate invalide su entrada en el cache de segundo nivel
+        for (Storage storage : storages) {
+            article.getStorages().add(storage);
+            syncInverseSide(storage, article, true);
+        }
         repository.save(article);
 
         return new ResponseEntity<>(
@@ -334,7 +491,10 @@ public class ArticlesService {
                 .filter(storage -> storageIds.contains(storage.getId()))
                 .collect(Collectors.toSet());
 
-        article.getStorages().removeAll(storagesToRemove);
+        for (Storage storage : storagesToRemove) {
+            article.getStorages().remove(storage);
+            syncInverseSide(storage, article, false);
+        }
         repository.save(article);
 
         return new ResponseEntity<>(
@@ -342,6 +502,16 @@ public class ArticlesService {
                 HttpStatus.OK);
     }
 
+    // El lado inverso no se cachea, pero si ya está cargado en esta sesión se mantiene coherente sin forzar su carga
+    private void syncInverseSide(Storage storage, Articles article, boolean add) {
+        if (!Hibernate.isInitialized(storage.getArticles())) return;
+        if (add) {
+            storage.getArticles().add(article);
+        } else {
+            storage.getArticles().remove(article);
+        }
+    }
+
     //borrar un artículo
     @Transactional
     public ResponseEntity<ApiResponse> delete(Long id) {
@@ -354,6 +524,7 @@ public class ArticlesService {
 
         Articles article = articleOpt.get();
         repository.delete(article);
+        searchIndex.removeAfterCommit(id);
         return new ResponseEntity<>(
                 new ApiResponse("Article deleted successfully", HttpStatus.OK),
                 HttpStatus.OK);
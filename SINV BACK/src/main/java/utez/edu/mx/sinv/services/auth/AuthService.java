@@ -2,73 +2,136 @@ package utez.edu.mx.sinv.services.auth;
 
 import utez.edu.mx.sinv.config.ApiResponse;
 import utez.edu.mx.sinv.controllers.auth.dto.SignedDto;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
 import utez.edu.mx.sinv.models.user.Users;
+import utez.edu.mx.sinv.security.entity.UserDetailsImpl;
 import utez.edu.mx.sinv.security.jwt.JwtProvider;
-import utez.edu.mx.sinv.services.users.UserService;
+import utez.edu.mx.sinv.security.ratelimit.LoginRateLimiter;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.Locale;
 
-@Transactional
+// Sin transacción a nivel de clase: el BCrypt del login no debe retener una conexión ni una
+// transacción; cada escritura (alta o rotación del refresh token) abre la suya en RefreshTokenService
 @Service
 public class AuthService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
     // Constantes para mensajes de error
     private static final String CREDENTIALS_MISMATCH = "CredentialMismatch";
     private static final String USER_DISABLED = "UserDisabled";
+    private static final String INVALID_REFRESH_TOKEN = "InvalidRefreshToken";
+    private static final String TOKEN_TYPE = "Bearer";
 
-    private final UserService userService; // Cambiado a minúscula
     private final AuthenticationManager manager;
     private final JwtProvider provider;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginRateLimiter rateLimiter;
 
-    public AuthService(UserService userService, AuthenticationManager manager, JwtProvider provider) {
-        this.userService = userService; // Actualizado para coincidir
+    public AuthService(AuthenticationManager manager, JwtProvider provider, RefreshTokenService refreshTokenService,
+                       LoginRateLimiter rateLimiter) {
         this.manager = manager;
         this.provider = provider;
+        this.refreshTokenService = refreshTokenService;
+        this.rateLimiter = rateLimiter;
     }
 
-    @Transactional(readOnly = true)
+    // Una sola consulta: el proveedor de autenticación carga usuario y rol, y el mismo objeto arma la respuesta.
+    // La única escritura es el alta del refresh token de la nueva sesión
     public ResponseEntity<ApiResponse> signIn(String email, String password) {
+        // La ficha de la cuenta se reserva antes de gastar un BCrypt y se devuelve si las credenciales son correctas.
+        // El correo se normaliza para que variantes de mayúsculas o espacios compartan el mismo balde
+        String account = email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+        rateLimiter.reserveAccount(LoginRateLimiter.SIGN_IN, account);
+        Authentication auth;
         try {
-            Optional<Users> foundUser = userService.findByEmail(email); // Actualizado aquí
-            if (foundUser.isEmpty()) {
-                return new ResponseEntity<>(
-                        new ApiResponse("Usuario no encontrado", HttpStatus.NOT_FOUND),
-                        HttpStatus.NOT_FOUND
-                );
-            }
-
-            Users users = foundUser.get();
-            Authentication auth = manager.authenticate(
+            auth = manager.authenticate(
                     new UsernamePasswordAuthenticationToken(email, password)
             );
-            SecurityContextHolder.getContext().setAuthentication(auth);
-            String token = provider.generateToken(auth);
-
-            SignedDto signedDto = new SignedDto(token, "Bearer", users, users.getRole());
-            return new ResponseEntity<>(
-                    new ApiResponse(signedDto, HttpStatus.OK),
-                    HttpStatus.OK
-            );
-
+        } catch (GlobalExceptionHandler.ServiceUnavailableException e) {
+            // El pool de hash está saturado: no es un error de credenciales
+            rateLimiter.refundAccount(LoginRateLimiter.SIGN_IN, account);
+            throw e;
         } catch (DisabledException e) {
+            // La contraseña era correcta
+            rateLimiter.refundAccount(LoginRateLimiter.SIGN_IN, account);
             return new ResponseEntity<>(
                     new ApiResponse(HttpStatus.BAD_REQUEST, true, USER_DISABLED),
                     HttpStatus.BAD_REQUEST
             );
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (InternalAuthenticationServiceException e) {
+            throw unexpectedFailure(account, e);
+        } catch (AuthenticationException e) {
+            // Correo inexistente o contraseña incorrecta: misma respuesta, no se revela qué correos existen
             return new ResponseEntity<>(
                     new ApiResponse(HttpStatus.BAD_REQUEST, true, CREDENTIALS_MISMATCH),
                     HttpStatus.BAD_REQUEST
             );
+        } catch (RuntimeException e) {
+            throw unexpectedFailure(account, e);
+        }
+
+        rateLimiter.refundAccount(LoginRateLimiter.SIGN_IN, account);
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        UserDetailsImpl principal = (UserDetailsImpl) auth.getPrincipal();
+        Users users = principal.getUser();
+        RefreshTokenService.Issued refreshToken = refreshTokenService.issue(users.getId());
+        String token = provider.generateToken(principal, refreshToken.sessionId());
+
+        SignedDto signedDto = new SignedDto(token, TOKEN_TYPE, refreshToken.token(), users, users.getRole());
+        return new ResponseEntity<>(
+                new ApiResponse(signedDto, HttpStatus.OK),
+                HttpStatus.OK
+        );
+    }
+
+    // Base de datos caída u otra falla ajena a las credenciales: no gasta la ficha de la cuenta y
+    // llega al cliente como 500 en lugar de un CredentialMismatch engañoso
+    private RuntimeException unexpectedFailure(String account, RuntimeException e) {
+        rateLimiter.refundAccount(LoginRateLimiter.SIGN_IN, account);
+        logger.error("Error inesperado al autenticar", e);
+        return e;
+    }
+
+    // Renueva el access token sin volver a pedir la contraseña; el refresh token usado queda inválido
+    public ResponseEntity<ApiResponse> refresh(String refreshToken) {
+        return refreshTokenService.rotate(refreshToken)
+                .map(rotation -> {
+                    Users users = rotation.user();
+                    String token = provider.generateToken(UserDetailsImpl.build(users), rotation.refreshToken().sessionId());
+                    SignedDto signedDto = new SignedDto(token, TOKEN_TYPE, rotation.refreshToken().token(), users, users.getRole());
+                    return new ResponseEntity<>(new ApiResponse(signedDto, HttpStatus.OK), HttpStatus.OK);
+                })
+                .orElseGet(() -> new ResponseEntity<>(
+                        new ApiResponse(HttpStatus.UNAUTHORIZED, true, INVALID_REFRESH_TOKEN),
+                        HttpStatus.UNAUTHORIZED
+                ));
+    }
+
+    // Revoca la sesión del access token y, si viene, la del refresh token (cubre un access token ya vencido)
+    public ResponseEntity<ApiResponse> logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                Claims claims = provider.resolveClaims(accessToken);
+                refreshTokenService.revokeSession(provider.resolveSessionId(claims));
+            } catch (Exception e) {
+                // Token vencido o inválido: se intenta con el refresh token
+            }
         }
+        refreshTokenService.revokeByToken(refreshToken);
+        SecurityContextHolder.clearContext();
+        return new ResponseEntity<>(new ApiResponse(), HttpStatus.OK);
     }
-}
\ No newline at end of file
+}
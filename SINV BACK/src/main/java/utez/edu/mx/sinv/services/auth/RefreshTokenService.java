@@ -0,0 +1,185 @@
+package utez.edu.mx.sinv.services.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import utez.edu.mx.sinv.models.refreshtoken.RefreshToken;
+import utez.edu.mx.sinv.models.refreshtoken.RefreshTokenRepository;
+import utez.edu.mx.sinv.models.user.Users;
+import utez.edu.mx.sinv.models.user.UsersRepository;
+import utez.edu.mx.sinv.security.jwt.TokenDenyList;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+// Refresh tokens opacos con rotación: cada uso entrega uno nuevo y el anterior queda marcado.
+// Si un token ya rotado vuelve a usarse, alguien lo copió, y se revoca la sesión completa; salvo que la
+// rotación haya sido hace un instante, que es otra pestaña renovando con el mismo token a la vez.
+// La búsqueda es por SHA-256 indexado, así que renovar la sesión nunca pasa por BCrypt
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final String REFRESH_COUNTER = "sinv.security.refresh";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository repository;
+    private final UsersRepository usersRepository;
+    private final TokenDenyList denyList;
+    private final TransactionTemplate transactionTemplate;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Counter rotatedCounter;
+    private final Counter reuseCounter;
+    private final Counter concurrentCounter;
+    private final Counter rejectedCounter;
+
+    @Value("${jwt.refresh-expiration:1209600}")
+    private long refreshExpiration;
+
+    @Value("${refresh-token.reuse-grace-seconds:10}")
+    private long reuseGraceSeconds;
+
+    @Value("${refresh-token.cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${refresh-token.cleanup.max-batches:500}")
+    private int maxBatches;
+
+    public RefreshTokenService(RefreshTokenRepository repository, UsersRepository usersRepository,
+                               TokenDenyList denyList, TransactionTemplate transactionTemplate,
+                               MeterRegistry registry) {
+        this.repository = repository;
+        this.usersRepository = usersRepository;
+        this.denyList = denyList;
+        this.transactionTemplate = transactionTemplate;
+        this.rotatedCounter = registry.counter(REFRESH_COUNTER, "result", "rotated");
+        this.reuseCounter = registry.counter(REFRESH_COUNTER, "result", "reuse");
+        this.concurrentCounter = registry.counter(REFRESH_COUNTER, "result", "concurrent");
+        this.rejectedCounter = registry.counter(REFRESH_COUNTER, "result", "rejected");
+    }
+
+    // Inicia una sesión nueva
+    @Transactional
+    public Issued issue(Long userId) {
+        return issue(userId, randomToken(16));
+    }
+
+    // Devuelve el usuario y el nuevo token, o vacío si el token no sirve.
+    // Los rechazos no lanzan excepción para que la revocación por reuso sí se confirme
+    @Transactional
+    public Optional<Rotation> rotate(String rawToken) {
+        Date now = new Date();
+        Optional<RefreshToken> found = rawToken == null ? Optional.empty() : repository.findByTokenHash(hash(rawToken));
+        if (found.isEmpty() || found.get().getRevokedAt() != null || !found.get().getExpiresAt().after(now)) {
+            rejectedCounter.increment();
+            return Optional.empty();
+        }
+
+        RefreshToken current = found.get();
+        Date rotatedAt = current.getRotatedAt();
+        if (rotatedAt != null || repository.markRotated(current.getId(), now) == 0) {
+            // Sin rotatedAt leído, otra petición lo marcó entre la lectura y el UPDATE. No se puede devolver
+            // el sucesor (solo se guarda su hash): se rechaza sin revocar y el cliente toma la sesión nueva
+            if (rotatedAt == null || now.getTime() - rotatedAt.getTime() < reuseGraceSeconds * 1000) {
+                concurrentCounter.increment();
+                return Optional.empty();
+            }
+            reuseCounter.increment();
+            logger.warn("Reuso de refresh token detectado; se revoca la sesión del usuario {}", current.getUserId());
+            revokeSession(current.getSessionId(), now);
+            return Optional.empty();
+        }
+
+        Optional<Users> user = usersRepository.findById(current.getUserId());
+        if (user.isEmpty() || !Boolean.TRUE.equals(user.get().getStatus())) {
+            revokeSession(current.getSessionId(), now);
+            rejectedCounter.increment();
+            return Optional.empty();
+        }
+
+        rotatedCounter.increment();
+        return Optional.of(new Rotation(user.get(), issue(current.getUserId(), current.getSessionId())));
+    }
+
+    // Cierra la sesión a la que pertenece el refresh token, si existe
+    @Transactional
+    public void revokeByToken(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) return;
+        repository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> revokeSession(token.getSessionId(), new Date()));
+    }
+
+    @Transactional
+    public void revokeSession(String sessionId) {
+        if (sessionId == null) return;
+        revokeSession(sessionId, new Date());
+    }
+
+    // Deshabilitar, borrar o cambiar credenciales de un usuario cierra todas sus sesiones
+    @Transactional
+    public void revokeUser(Long userId) {
+        if (userId == null) return;
+        Date now = new Date();
+        List<String> sessions = repository.findActiveSessionIds(userId, now);
+        repository.revokeUser(userId, now);
+        denyList.revokeSessions(sessions);
+    }
+
+    @Scheduled(cron = "${refresh-token.cleanup.cron:0 30 3 * * ?}")
+    public void purgeExpired() {
+        Date now = new Date();
+        int deleted = 0;
+        for (int batches = 0; batches < maxBatches; batches++) {
+            Integer count = transactionTemplate.execute(status -> repository.deleteExpiredBatch(now, batchSize));
+            deleted += count == null ? 0 : count;
+            if (count == null || count < batchSize) break;
+        }
+        logger.info("Limpieza de refresh tokens: {} borrados", deleted);
+    }
+
+    private void revokeSession(String sessionId, Date now) {
+        repository.revokeSession(sessionId, now);
+        denyList.revokeSessions(List.of(sessionId));
+    }
+
+    private Issued issue(Long userId, String sessionId) {
+        String rawToken = randomToken(32);
+        Date expiresAt = new Date(System.currentTimeMillis() + refreshExpiration * 1000);
+        repository.save(new RefreshToken(hash(rawToken), sessionId, userId, expiresAt));
+        return new Issued(rawToken, sessionId);
+    }
+
+    private String randomToken(int bytes) {
+        byte[] value = new byte[bytes];
+        random.nextBytes(value);
+        return ENCODER.encodeToString(value);
+    }
+
+    // El token ya tiene 256 bits aleatorios, un hash rápido sin sal es suficiente
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    public record Issued(String token, String sessionId) {
+    }
+
+    public record Rotation(Users user, Issued refreshToken) {
+    }
+}
@@ -0,0 +1,48 @@
+package utez.edu.mx.sinv.services.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import utez.edu.mx.sinv.config.ApiResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Estadísticas por región del cache de segundo nivel (requiere hibernate.generate_statistics=true)
+@Service
+public class CacheStatsService {
+    private final Statistics statistics;
+
+    public CacheStatsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public ResponseEntity<ApiResponse> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            stats.put(region, values(statistics.getDomainDataRegionStatistics(region)));
+        }
+        CacheRegionStatistics queries = statistics.getQueryRegionStatistics(
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        if (queries != null) {
+            stats.put(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, values(queries));
+        }
+        return new ResponseEntity<>(new ApiResponse(stats, HttpStatus.OK), HttpStatus.OK);
+    }
+
+    private Map<String, Object> values(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("hits", hits);
+        values.put("misses", misses);
+        values.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        values.put("puts", region.getPutCount());
+        return values;
+    }
+}
@@ -8,6 +8,8 @@ import utez.edu.mx.sinv.config.ApiResponse;
 import utez.edu.mx.sinv.controllers.categories.dto.CategoriesDto;
 import utez.edu.mx.sinv.models.categories.Categories;
 import utez.edu.mx.sinv.models.categories.CategoriesRepository;
+import utez.edu.mx.sinv.utils.ConflictUtils;
+import utez.edu.mx.sinv.utils.ETagUtils;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +17,8 @@ import java.util.Optional;
 @Service
 @Transactional
 public class CategoriesService {
+    private static final String DUPLICATED_NAME = "Category already exists";
+
     private final CategoriesRepository repository;
 
     public CategoriesService(CategoriesRepository repository) {
@@ -28,6 +32,19 @@ public class CategoriesService {
                 HttpStatus.OK);
     }
 
+    // Los listados de categorías (todas o activas) cambian cuando cambia cualquier categoría
+    @Transactional(readOnly = true)
+    public String listETag() {
+        return ETagUtils.of("categories", repository.findVersionStamp());
+    }
+
+    @Transactional(readOnly = true)
+    public String detailETag(Long id) {
+        return repository.findVersionStamp(id)
+                .map(stamp -> ETagUtils.of("category", stamp))
+                .orElse(null);
+    }
+
     @Transactional(readOnly = true)
     public ResponseEntity<ApiResponse> findActiveCategories() {
         return new ResponseEntity<>(
@@ -48,31 +65,32 @@ public class CategoriesService {
 
     @Transactional
     public ResponseEntity<ApiResponse> save(CategoriesDto dto) {
-        if (repository.existsByName(dto.getName())) {
-            return new ResponseEntity<>(
-                    new ApiResponse("Category already exists", HttpStatus.BAD_REQUEST),
-                    HttpStatus.BAD_REQUEST);
-        }
-
+        // El nombre duplicado lo rechaza la restricción única de la columna
         Categories category = dto.toEntity();
-        category = repository.save(category);
+        category.setId(null);
+        Categories saved = ConflictUtils.saveUnique(() -> repository.saveAndFlush(category), DUPLICATED_NAME);
         return new ResponseEntity<>(
-                new ApiResponse(category, HttpStatus.CREATED),
+                new ApiResponse(saved, HttpStatus.CREATED),
                 HttpStatus.CREATED);
     }
 
     @Transactional
     public ResponseEntity<ApiResponse> update(CategoriesDto dto) {
-        if (!repository.existsById(dto.getId())) {
+        Optional<Categories> existing = repository.findById(dto.getId());
+        if (existing.isEmpty()) {
             return new ResponseEntity<>(
                     new ApiResponse("Category not found", HttpStatus.NOT_FOUND),
                     HttpStatus.NOT_FOUND);
         }
 
-        Categories category = dto.toEntity();
-        category = repository.save(category);
+        // Se modifica la entidad cargada para que Hibernate controle la versión
+        Categories category = existing.get();
+        ConflictUtils.checkVersion(dto.getVersion(), category.getVersion());
+        category.setName(dto.getName());
+        category.setStatus(dto.getStatus() != null ? dto.getStatus() : true);
+        Categories saved = ConflictUtils.saveUnique(() -> repository.saveAndFlush(category), DUPLICATED_NAME);
         return new ResponseEntity<>(
-                new ApiResponse(category, HttpStatus.OK),
+                new ApiResponse(saved, HttpStatus.OK),
                 HttpStatus.OK);
     }
 
@@ -0,0 +1,66 @@
+package utez.edu.mx.sinv.services.dashboard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.controllers.dashboard.dto.DashboardStatsDto;
+import utez.edu.mx.sinv.models.articles.ArticlesRepository;
+import utez.edu.mx.sinv.models.categories.CategoriesRepository;
+import utez.edu.mx.sinv.models.storage.StorageRepository;
+import utez.edu.mx.sinv.models.user.UsersRepository;
+
+@Service
+@Transactional(readOnly = true)
+public class DashboardService {
+    private final ArticlesRepository articlesRepository;
+    private final CategoriesRepository categoriesRepository;
+    private final StorageRepository storageRepository;
+    private final UsersRepository usersRepository;
+
+    // Vigencia de la última foto de estadísticas; 0 la recalcula en cada petición
+    @Value("${dashboard.snapshot.ttl:30}")
+    private long snapshotTtlSeconds;
+
+    private volatile DashboardStatsDto snapshot;
+    private volatile long snapshotTakenAt;
+
+    public DashboardService(ArticlesRepository articlesRepository,
+                            CategoriesRepository categoriesRepository,
+                            StorageRepository storageRepository,
+                            UsersRepository usersRepository) {
+        this.articlesRepository = articlesRepository;
+        this.categoriesRepository = categoriesRepository;
+        this.storageRepository = storageRepository;
+        this.usersRepository = usersRepository;
+    }
+
+    public ResponseEntity<ApiResponse> getStats() {
+        long now = System.currentTimeMillis();
+        DashboardStatsDto current = snapshot;
+        if (current == null || now - snapshotTakenAt >= snapshotTtlSeconds * 1000) {
+            current = computeStats();
+            snapshot = current;
+            snapshotTakenAt = now;
+        }
+        return new ResponseEntity<>(new ApiResponse(current, HttpStatus.OK), HttpStatus.OK);
+    }
+
+    // Todo se resuelve con COUNT / GROUP BY en la base de datos, sin traer las tablas completas
+    private DashboardStatsDto computeStats() {
+        return DashboardStatsDto.builder()
+                .totalArticles(articlesRepository.count())
+                .totalCategories(categoriesRepository.count())
+                .totalStorages(storageRepository.count())
+                .totalUsers(usersRepository.count())
+                .articlesPerCategory(articlesRepository.countPerCategory())
+                .storagesPerCategory(storageRepository.countPerCategory())
+                .usersPerRole(usersRepository.countPerRole())
+                .recentArticles(articlesRepository.findTop5ByOrderByIdDesc())
+                .emptyStorages(storageRepository.countEmpty())
+                .assignedStorages(storageRepository.countByResponsibleIsNotNull())
+                .build();
+    }
+}
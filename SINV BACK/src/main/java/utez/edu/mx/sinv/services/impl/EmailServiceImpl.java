@@ -2,7 +2,10 @@ package utez.edu.mx.sinv.services.impl;
 
 import utez.edu.mx.sinv.exception.EmailSendingException;
 import utez.edu.mx.sinv.services.EmailService;
-import org.springframework.mail.javamail.JavaMailSender;
+import utez.edu.mx.sinv.services.mail.SmtpTransportPool;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import jakarta.mail.internet.MimeMessage;
@@ -11,33 +14,46 @@ import org.thymeleaf.context.Context;
 
 @Service
 public class EmailServiceImpl implements EmailService {
-    private final JavaMailSender javaMailSender;
+    private static final String PASSWORD_RESET_TEMPLATE = "email";
+
+    private final SmtpTransportPool transportPool;
     private final TemplateEngine templateEngine;
 
-    public EmailServiceImpl(JavaMailSender javaMailSender, TemplateEngine templateEngine) {
-        this.javaMailSender = javaMailSender;
+    public EmailServiceImpl(SmtpTransportPool transportPool,
+                            @Qualifier("emailTemplateEngine") TemplateEngine templateEngine) {
+        this.transportPool = transportPool;
         this.templateEngine = templateEngine;
     }
 
+    // Procesa la plantilla una vez al arrancar para que el primer correo no pague el parseo
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpTemplates() {
+        templateEngine.process(PASSWORD_RESET_TEMPLATE, new Context());
+    }
+
     @Override
     public void sendPasswordResetEmail(String emailTo, String token) {
+        transportPool.send(preparePasswordResetEmail(emailTo, token));
+    }
+
+    @Override
+    public MimeMessage preparePasswordResetEmail(String emailTo, String token) {
         // Preparar el contexto para Thymeleaf
         Context context = new Context();
         context.setVariable("token", token);
 
         // Generar el contenido HTML con Thymeleaf
-        String process = templateEngine.process("email", context);
+        String process = templateEngine.process(PASSWORD_RESET_TEMPLATE, context);
 
         try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+            MimeMessage mimeMessage = transportPool.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
             helper.setTo(emailTo);
             helper.setSubject("Restablecimiento de Contraseña");
             helper.setText(process, true);
-
-            javaMailSender.send(mimeMessage);
+            return mimeMessage;
         } catch (Exception e) {
             throw new EmailSendingException("Error al enviar el correo de restablecimiento de contraseña", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+package utez.edu.mx.sinv.services.mail;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import utez.edu.mx.sinv.models.mail.MailOutbox;
+import utez.edu.mx.sinv.models.mail.MailOutboxRepository;
+import utez.edu.mx.sinv.models.mail.MailStatus;
+import utez.edu.mx.sinv.services.EmailService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Envía los correos del outbox fuera del hilo de la petición, con reintentos y espera exponencial
+@Component
+public class MailDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MailOutboxRepository repository;
+    private final EmailService emailService;
+    private final SmtpTransportPool transportPool;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${mail.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    // Si un worker muere a medio envío, el correo vuelve a estar disponible al terminar el préstamo
+    @Value("${mail.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    // Correos enviados por una misma conexión en cada tarea del pool
+    @Value("${mail.outbox.send-batch-size:20}")
+    private int sendBatchSize;
+
+    public MailDispatcher(MailOutboxRepository repository,
+                          EmailService emailService,
+                          SmtpTransportPool transportPool,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${mail.executor.threads:2}") int threads,
+                          @Value("${mail.executor.queue-capacity:100}") int queueCapacity) {
+        this.repository = repository;
+        this.emailService = emailService;
+        this.transportPool = transportPool;
+        this.transactionTemplate = transactionTemplate;
+
+        // Pool acotado: si la cola se llena, el correo queda en PENDING y lo recoge el sondeo.
+        // Se queda en hilos de plataforma aunque spring.threads.virtual.enabled esté activo: SMTPTransport de
+        // Jakarta Mail hace la E/S dentro de métodos synchronized, lo que fijaría el hilo virtual a su carrier
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @TransactionalEventListener
+    public void onMailQueued(MailQueuedEvent event) {
+        submit(List.of(event.mailId()));
+    }
+
+    // Recupera los correos que no se pudieron enviar al momento (reintentos, cola llena o reinicio)
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:30000}", initialDelayString = "${mail.outbox.poll-initial-delay:10000}")
+    public void pollDue() {
+        int free = executor.getQueue().remainingCapacity();
+        if (free == 0) return;
+
+        List<Long> due = repository.findDueIds(LocalDateTime.now(), Limit.of(Math.min(free * sendBatchSize, batchSize)));
+        // Cada tarea envía varios correos por una sola conexión SMTP
+        for (int from = 0; from < due.size(); from += sendBatchSize) {
+            if (!submit(due.subList(from, Math.min(from + sendBatchSize, due.size())))) break;
+        }
+    }
+
+    private boolean submit(List<Long> mailIds) {
+        List<Long> ids = List.copyOf(mailIds);
+        try {
+            executor.execute(() -> deliver(ids));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    void deliver(List<Long> mailIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        // Solo se procesan los que este worker logró tomar; los demás ya los tiene otro o aún no tocan
+        List<Long> claimed = transactionTemplate.execute(status -> mailIds.stream()
+                .filter(id -> repository.claim(id, now, leaseUntil) == 1)
+                .toList());
+        if (claimed == null || claimed.isEmpty()) return;
+
+        Map<MimeMessage, MailOutbox> messages = new LinkedHashMap<>();
+        for (MailOutbox mail : repository.findAllById(claimed)) {
+            try {
+                messages.put(prepare(mail), mail);
+            } catch (RuntimeException e) {
+                scheduleRetry(mail, e);
+            }
+        }
+        if (messages.isEmpty()) return;
+
+        Map<MimeMessage, Exception> failures = transportPool.sendAll(new ArrayList<>(messages.keySet()));
+
+        List<Long> sent = new ArrayList<>();
+        messages.forEach((message, mail) -> {
+            Exception error = failures.get(message);
+            if (error == null) {
+                sent.add(mail.getId());
+            } else {
+                scheduleRetry(mail, error);
+            }
+        });
+        if (!sent.isEmpty()) {
+            LocalDateTime sentAt = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> sent.forEach(id -> repository.markSent(id, sentAt)));
+        }
+    }
+
+    private MimeMessage prepare(MailOutbox mail) {
+        if (MailOutbox.PASSWORD_RESET.equals(mail.getType())) {
+            return emailService.preparePasswordResetEmail(mail.getRecipient(), mail.getPayload());
+        }
+        throw new IllegalStateException("Unknown mail type: " + mail.getType());
+    }
+
+    private void scheduleRetry(MailOutbox mail, Exception e) {
+        String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) error = error.substring(0, MAX_ERROR_LENGTH);
+
+        boolean exhausted = mail.getAttempts() >= maxAttempts;
+        MailStatus status = exhausted ? MailStatus.FAILED : MailStatus.PENDING;
+        LocalDateTime nextAttempt = LocalDateTime.now().plusSeconds(exhausted ? 0 : backoffSeconds(mail.getAttempts()));
+
+        String lastError = error;
+        transactionTemplate.executeWithoutResult(tx ->
+                repository.markFailedAttempt(mail.getId(), status, nextAttempt, lastError));
+
+        if (exhausted) {
+            logger.error("Correo {} descartado después de {} intentos: {}", mail.getId(), mail.getAttempts(), error);
+        } else {
+            logger.warn("Fallo el envío del correo {} (intento {}), se reintentará a las {}", mail.getId(), mail.getAttempts(), nextAttempt);
+        }
+    }
+
+    // base * 2^(intento - 1), con un poco de aleatoriedad para no reintentar todos a la vez
+    private long backoffSeconds(int attempt) {
+        long delay = backoffBaseSeconds << Math.min(attempt - 1, 20);
+        delay = Math.min(delay, backoffMaxSeconds);
+        return delay + ThreadLocalRandom.current().nextLong(Math.max(1, delay / 10));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,26 @@
+package utez.edu.mx.sinv.services.mail;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import utez.edu.mx.sinv.models.mail.MailOutbox;
+import utez.edu.mx.sinv.models.mail.MailOutboxRepository;
+
+@Service
+public class MailOutboxService {
+    private final MailOutboxRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MailOutboxService(MailOutboxRepository repository, ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Debe llamarse dentro de la transacción que crea el token, para que ambos se guarden o ninguno
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePasswordReset(String emailTo, String token) {
+        MailOutbox mail = repository.save(new MailOutbox(MailOutbox.PASSWORD_RESET, emailTo, token));
+        eventPublisher.publishEvent(new MailQueuedEvent(mail.getId()));
+    }
+}
@@ -0,0 +1,5 @@
+package utez.edu.mx.sinv.services.mail;
+
+// Se publica al encolar un correo; el despachador lo recibe cuando la transacción hace commit
+public record MailQueuedEvent(Long mailId) {
+}
@@ -0,0 +1,194 @@
+package utez.edu.mx.sinv.services.mail;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import utez.edu.mx.sinv.exception.EmailSendingException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Conexiones SMTP autenticadas que se reutilizan entre envíos para no repetir el handshake TLS cada vez
+@Component
+public class SmtpTransportPool {
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final long borrowTimeoutMillis;
+    private final long maxIdleMillis;
+    private final int maxMessagesPerConnection;
+
+    // Conexiones libres; la más reciente se usa primero para que las viejas expiren solas
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${email.pool.max-size:4}") int maxSize,
+                             @Value("${email.pool.borrow-timeout:10000}") long borrowTimeoutMillis,
+                             @Value("${email.pool.max-idle:60000}") long maxIdleMillis,
+                             @Value("${email.pool.max-messages-per-connection:100}") int maxMessagesPerConnection) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(maxSize, true);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.maxIdleMillis = maxIdleMillis;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    public void send(MimeMessage message) {
+        Map<MimeMessage, Exception> failures = sendAll(List.of(message));
+        if (!failures.isEmpty()) {
+            Exception cause = failures.get(message);
+            throw new EmailSendingException("Error al enviar el correo", cause);
+        }
+    }
+
+    // Envía todos los mensajes por una sola conexión; devuelve los que fallaron con su error
+    public Map<MimeMessage, Exception> sendAll(List<MimeMessage> messages) {
+        Map<MimeMessage, Exception> failures = new LinkedHashMap<>();
+        if (messages.isEmpty()) return failures;
+
+        PooledTransport transport;
+        try {
+            transport = borrow();
+        } catch (MessagingException | RuntimeException e) {
+            messages.forEach(message -> failures.put(message, e));
+            return failures;
+        }
+
+        try {
+            for (MimeMessage message : messages) {
+                try {
+                    transport = sendOne(transport, message);
+                } catch (MessagingException e) {
+                    failures.put(message, e);
+                }
+            }
+        } finally {
+            release(transport);
+        }
+        return failures;
+    }
+
+    // Si el servidor cerró la conexión (o ya se enviaron demasiados mensajes por ella) se reconecta una vez
+    private PooledTransport sendOne(PooledTransport transport, MimeMessage message) throws MessagingException {
+        // isConnected() envía un NOOP al servidor, por eso la conexión solo se verifica al prestarla o si falla un envío
+        if (transport.messagesSent >= maxMessagesPerConnection) {
+            transport.close();
+            transport = connect();
+        }
+
+        message.saveChanges();
+        try {
+            transport.transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            if (transport.transport.isConnected()) throw e; // el error es del mensaje, no de la conexión
+            transport.close();
+            transport = connect();
+            transport.transport.sendMessage(message, message.getAllRecipients());
+        }
+        transport.messagesSent++;
+        return transport;
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new EmailSendingException("No hay conexiones SMTP disponibles");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmailSendingException("Interrumpido esperando una conexión SMTP", e);
+        }
+
+        try {
+            PooledTransport transport;
+            while ((transport = idle.pollFirst()) != null) {
+                if (transport.isUsable(System.currentTimeMillis(), maxIdleMillis)) return transport;
+                transport.close();
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport transport) {
+        try {
+            if (transport.transport.isConnected()) {
+                transport.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(transport);
+            } else {
+                transport.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Session session = mailSender.getSession();
+        Transport transport = session.getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        return new PooledTransport(transport);
+    }
+
+    // Cierra las conexiones ociosas antes de que el servidor las corte
+    @Scheduled(fixedDelayString = "${email.pool.evict-interval:30000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledTransport> expired = new ArrayList<>();
+        Iterator<PooledTransport> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledTransport transport = iterator.next();
+            if (!transport.isUsable(now, maxIdleMillis) && idle.removeFirstOccurrence(transport)) {
+                expired.add(transport);
+            }
+        }
+        expired.forEach(PooledTransport::close);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            transport.close();
+        }
+    }
+
+    private static class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsed = System.currentTimeMillis();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        boolean isUsable(long now, long maxIdleMillis) {
+            return now - lastUsed < maxIdleMillis && transport.isConnected();
+        }
+
+        void close() {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+                // la conexión ya estaba cerrada
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package utez.edu.mx.sinv.services.reports;
+
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import org.springframework.data.domain.Limit;
+import utez.edu.mx.sinv.models.articles.InventoryReportRow;
+
+import java.util.Iterator;
+import java.util.List;
+
+// Entrega las filas al reporte por páginas (keyset), sin cargar todo el inventario en memoria
+public class PagedInventoryDataSource implements JRDataSource {
+
+    @FunctionalInterface
+    public interface PageLoader {
+        List<InventoryReportRow> load(Long groupId, Long articleId, Limit limit);
+    }
+
+    private final PageLoader loader;
+    private final int pageSize;
+
+    private Iterator<InventoryReportRow> page;
+    private InventoryReportRow current;
+    private Long lastGroupId = 0L;
+    private Long lastArticleId = 0L;
+    private boolean lastPage;
+
+    public PagedInventoryDataSource(PageLoader loader, int pageSize) {
+        this.loader = loader;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean next() throws JRException {
+        if (page == null || !page.hasNext()) {
+            if (lastPage) return false;
+            List<InventoryReportRow> rows = loader.load(lastGroupId, lastArticleId, Limit.of(pageSize));
+            lastPage = rows.size() < pageSize;
+            page = rows.iterator();
+            if (!page.hasNext()) return false;
+        }
+
+        current = page.next();
+        lastGroupId = current.groupId();
+        lastArticleId = current.articleId();
+        return true;
+    }
+
+    @Override
+    public Object getFieldValue(JRField field) throws JRException {
+        return switch (field.getName()) {
+            case "groupId" -> current.groupId();
+            case "groupName" -> current.groupName();
+            case "articleId" -> current.articleId();
+            case "articleName" -> current.articleName();
+            case "description" -> current.description();
+            case "status" -> current.status();
+            case "categoryName" -> current.categoryName();
+            case "storageIdentifier" -> current.storageIdentifier();
+            default -> throw new JRException("Unknown report field: " + field.getName());
+        };
+    }
+}
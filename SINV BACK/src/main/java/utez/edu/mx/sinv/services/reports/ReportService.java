@@ -0,0 +1,191 @@
+package utez.edu.mx.sinv.services.reports;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.export.SimpleXlsxReportConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler.ServiceUnavailableException;
+import utez.edu.mx.sinv.models.articles.ArticlesRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Reportes de inventario con JasperReports; las plantillas se compilan una sola vez y se reutilizan
+@Service
+public class ReportService {
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+    private static final String INVENTORY_TEMPLATE = "inventory";
+    private static final List<String> TEMPLATES = List.of(INVENTORY_TEMPLATE);
+
+    private final ArticlesRepository articlesRepository;
+
+    // El virtualizador de Jasper escribe el archivo de intercambio dentro de métodos synchronized; con hilos
+    // virtuales (JDK 21) eso fija el hilo a su carrier, así que se limita cuántos reportes se generan a la vez
+    private final Semaphore renderPermits;
+
+    // JasperReport es inmutable después de compilarse, por lo que se comparte entre hilos
+    private final Map<String, JasperReport> compiled = new ConcurrentHashMap<>();
+
+    @Value("${reports.page-size:500}")
+    private int pageSize;
+
+    // Páginas del reporte que se mantienen en memoria; el resto se guarda en un archivo temporal
+    @Value("${reports.virtualizer.max-pages:50}")
+    private int maxPagesInMemory;
+
+    public ReportService(ArticlesRepository articlesRepository,
+                         @Value("${reports.max-concurrent:2}") int maxConcurrent) {
+        this.articlesRepository = articlesRepository;
+        this.renderPermits = new Semaphore(maxConcurrent);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (String name : TEMPLATES) {
+            try {
+                getTemplate(name);
+            } catch (IllegalStateException e) {
+                logger.error("No se pudo compilar la plantilla {}", name, e);
+            }
+        }
+    }
+
+    public RenderedReport renderInventory(String groupBy, String format) {
+        PagedInventoryDataSource.PageLoader loader;
+        String groupLabel;
+        switch (groupBy.toLowerCase()) {
+            case "storage" -> {
+                loader = articlesRepository::findReportRowsByStorage;
+                groupLabel = "Almacén";
+            }
+            case "category" -> {
+                loader = articlesRepository::findReportRowsByCategory;
+                groupLabel = "Categoría";
+            }
+            case "responsible" -> {
+                loader = articlesRepository::findReportRowsByResponsible;
+                groupLabel = "Responsable";
+            }
+            default -> throw new IllegalArgumentException("groupBy must be storage, category or responsible");
+        }
+
+        boolean xlsx = "xlsx".equalsIgnoreCase(format);
+        if (!xlsx && !"pdf".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("format must be pdf or xlsx");
+        }
+
+        // Sin espera: si ya hay demasiados reportes en curso se responde 503 en lugar de retener el hilo de la petición
+        if (!renderPermits.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many reports in progress, try again later");
+        }
+        JRSwapFileVirtualizer virtualizer = new JRSwapFileVirtualizer(maxPagesInMemory,
+                new JRSwapFile(System.getProperty("java.io.tmpdir"), 4096, 64), true);
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("REPORT_TITLE", "Inventario por " + groupLabel.toLowerCase());
+        parameters.put("GROUP_LABEL", groupLabel);
+        parameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+        // En Excel no tiene sentido repetir encabezados por página
+        parameters.put(JRParameter.IS_IGNORE_PAGINATION, xlsx);
+
+        JasperPrint print;
+        try {
+            print = JasperFillManager.fillReport(getTemplate(INVENTORY_TEMPLATE), parameters,
+                    new PagedInventoryDataSource(loader, pageSize));
+            virtualizer.setReadOnly(true);
+        } catch (JRException | RuntimeException e) {
+            virtualizer.cleanup();
+            renderPermits.release();
+            throw new IllegalStateException("Error generating report", e);
+        }
+        return new RenderedReport(print, xlsx, virtualizer);
+    }
+
+    // Reporte ya llenado y pendiente de escribir. El permiso se devuelve una sola vez: al terminar de escribir
+    // o, si el cuerpo nunca llega a ejecutarse (timeout, desconexión), desde el callback de fin de la petición
+    public final class RenderedReport implements StreamingResponseBody {
+        private final JasperPrint print;
+        private final boolean xlsx;
+        private final JRSwapFileVirtualizer virtualizer;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private RenderedReport(JasperPrint print, boolean xlsx, JRSwapFileVirtualizer virtualizer) {
+            this.print = print;
+            this.xlsx = xlsx;
+            this.virtualizer = virtualizer;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try {
+                if (xlsx) {
+                    exportXlsx(print, out);
+                } else {
+                    JasperExportManager.exportReportToPdfStream(print, out);
+                }
+            } catch (JRException e) {
+                throw new IOException("Error exporting report", e);
+            } finally {
+                release();
+            }
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                virtualizer.cleanup();
+                renderPermits.release();
+            }
+        }
+    }
+
+    private void exportXlsx(JasperPrint print, OutputStream out) throws JRException {
+        JRXlsxExporter exporter = new JRXlsxExporter();
+        exporter.setExporterInput(new SimpleExporterInput(print));
+        exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+
+        SimpleXlsxReportConfiguration configuration = new SimpleXlsxReportConfiguration();
+        configuration.setDetectCellType(true);
+        configuration.setRemoveEmptySpaceBetweenRows(true);
+        configuration.setWhitePageBackground(false);
+        exporter.setConfiguration(configuration);
+        exporter.exportReport();
+    }
+
+    private JasperReport getTemplate(String name) {
+        return compiled.computeIfAbsent(name, key -> {
+            ClassPathResource resource = new ClassPathResource("reports/" + key + ".jrxml");
+            try (InputStream input = resource.getInputStream()) {
+                long start = System.currentTimeMillis();
+                JasperReport report = JasperCompileManager.compileReport(input);
+                logger.info("Plantilla {} compilada en {} ms", key, System.currentTimeMillis() - start);
+                return report;
+            } catch (IOException | JRException e) {
+                throw new IllegalStateException("Could not compile report template " + key, e);
+            }
+        });
+    }
+}
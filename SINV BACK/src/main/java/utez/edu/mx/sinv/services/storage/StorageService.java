@@ -1,34 +1,80 @@
 package utez.edu.mx.sinv.services.storage;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import utez.edu.mx.sinv.config.ApiResponse;
 import utez.edu.mx.sinv.controllers.storage.dto.StorageDto;
+import utez.edu.mx.sinv.models.articles.ArticlesRepository;
 import utez.edu.mx.sinv.models.categories.Categories;
 import utez.edu.mx.sinv.models.categories.CategoriesRepository;
 import utez.edu.mx.sinv.models.storage.Storage;
 import utez.edu.mx.sinv.models.storage.StorageRepository;
+import utez.edu.mx.sinv.models.storage.StorageSpecifications;
 import utez.edu.mx.sinv.models.user.Users;
 import utez.edu.mx.sinv.models.user.UsersRepository;
+import utez.edu.mx.sinv.utils.ConflictUtils;
+import utez.edu.mx.sinv.utils.ETagUtils;
+import utez.edu.mx.sinv.utils.PageableUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class StorageService {
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "identifier", "status");
+    private static final String DUPLICATED_STORAGE = "Storage identifier already exists";
+    private static final String RESPONSIBLE_TAKEN = "User is already responsible for another storage";
+    private static final Map<String, String> CONFLICT_MESSAGES = Map.of(
+            Storage.UK_IDENTIFIER, DUPLICATED_STORAGE,
+            Storage.UK_RESPONSIBLE, RESPONSIBLE_TAKEN);
     private final StorageRepository repository;
     private final CategoriesRepository categoriesRepository;
     private final UsersRepository usersRepository;
+    private final ArticlesRepository articlesRepository;
 
     public StorageService(StorageRepository repository,
                           CategoriesRepository categoriesRepository,
-                          UsersRepository usersRepository) {
+                          UsersRepository usersRepository,
+                          ArticlesRepository articlesRepository) {
         this.repository = repository;
         this.categoriesRepository = categoriesRepository;
         this.usersRepository = usersRepository;
+        this.articlesRepository = articlesRepository;
+    }
+
+    // El listado completo incluye categoría, responsable y artículos de cada almacén
+    @Transactional(readOnly = true)
+    public String listETag() {
+        return ETagUtils.of("storages",
+                repository.findVersionStamp(),
+                categoriesRepository.findVersionStamp(),
+                usersRepository.findVersionStamp(),
+                articlesRepository.findVersionStamp());
+    }
+
+    @Transactional(readOnly = true)
+    public String detailETag(Long id) {
+        return repository.findVersionStamp(id)
+                .map(stamp -> ETagUtils.of("storage", stamp.parts()))
+                .orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public String responsibleETag(Long userId) {
+        return repository.findVersionStampByResponsibleId(userId)
+                .map(stamp -> ETagUtils.of("storage", stamp.parts()))
+                .orElse(null);
     }
 
     @Transactional(readOnly = true)
@@ -38,6 +84,24 @@ public class StorageService {
                 HttpStatus.OK);
     }
 
+    // Listado paginado con filtros resueltos en la consulta
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponse> findPage(String identifier, Boolean status, Long categoryId,
+                                                Boolean assigned, Pageable pageable) {
+        List<Specification<Storage>> filters = new ArrayList<>();
+        if (identifier != null && !identifier.isBlank()) filters.add(StorageSpecifications.identifierContains(identifier));
+        if (status != null) filters.add(StorageSpecifications.hasStatus(status));
+        if (categoryId != null) filters.add(StorageSpecifications.inCategory(categoryId));
+        if (assigned != null) filters.add(StorageSpecifications.hasResponsible(assigned));
+
+        Page<Storage> page = repository.findAll(
+                Specification.allOf(filters),
+                PageableUtils.sanitize(pageable, SORTABLE_FIELDS, Sort.by("id")));
+        return new ResponseEntity<>(
+                new ApiResponse(new PagedModel<>(page), HttpStatus.OK),
+                HttpStatus.OK);
+    }
+
     @Transactional(readOnly = true)
     public ResponseEntity<ApiResponse> findById(Long id) {
         Optional<Storage> storage = repository.findById(id);
@@ -51,13 +115,6 @@ public class StorageService {
 
     @Transactional
     public ResponseEntity<ApiResponse> save(StorageDto dto) {
-        // Validar identificador único
-        if (repository.existsByIdentifier(dto.getIdentifier())) {
-            return new ResponseEntity<>(
-                    new ApiResponse("Storage identifier already exists", HttpStatus.BAD_REQUEST),
-                    HttpStatus.BAD_REQUEST);
-        }
-
         // Validar categoría
         Optional<Categories> category = categoriesRepository.findById(dto.getCategoryId());
         if (category.isEmpty()) {
@@ -76,25 +133,24 @@ public class StorageService {
                         HttpStatus.BAD_REQUEST);
             }
             responsible = user.get();
-
-            // Validar que el usuario no esté ya asignado a otro almacén
-            if (repository.findByResponsibleId(dto.getResponsibleId()).isPresent()) {
-                return new ResponseEntity<>(
-                        new ApiResponse("User is already responsible for another storage", HttpStatus.BAD_REQUEST),
-                        HttpStatus.BAD_REQUEST);
-            }
         }
 
         Storage storage = dto.toEntity();
-        storage = repository.save(storage);
+        storage.setId(null);
+        // Se asignan las entidades ya cargadas: con @Version una referencia armada solo con el id se tomaría como nueva
+        storage.setCategory(category.get());
+        storage.setResponsible(responsible);
+        // Identificador y responsable repetidos los rechazan las restricciones únicas de la tabla
+        Storage saved = ConflictUtils.saveUnique(() -> repository.saveAndFlush(storage), CONFLICT_MESSAGES);
         return new ResponseEntity<>(
-                new ApiResponse(storage, HttpStatus.CREATED),
+                new ApiResponse(saved, HttpStatus.CREATED),
                 HttpStatus.CREATED);
     }
 
     @Transactional
     public ResponseEntity<ApiResponse> update(StorageDto dto) {
-        if (!repository.existsById(dto.getId())) {
+        Optional<Storage> existing = repository.findById(dto.getId());
+        if (existing.isEmpty()) {
             return new ResponseEntity<>(
                     new ApiResponse("Storage not found", HttpStatus.NOT_FOUND),
                     HttpStatus.NOT_FOUND);
@@ -108,10 +164,28 @@ public class StorageService {
                     HttpStatus.BAD_REQUEST);
         }
 
-        Storage storage = dto.toEntity();
-        storage = repository.save(storage);
+        // Igual que antes, un responsableId vacío deja el almacén sin responsable
+        Users responsible = null;
+        if (dto.getResponsibleId() != null) {
+            Optional<Users> user = usersRepository.findById(dto.getResponsibleId());
+            if (user.isEmpty()) {
+                return new ResponseEntity<>(
+                        new ApiResponse("Responsible user not found", HttpStatus.BAD_REQUEST),
+                        HttpStatus.BAD_REQUEST);
+            }
+            responsible = user.get();
+        }
+
+        // Se modifica la entidad cargada para que Hibernate controle la versión
+        Storage storage = existing.get();
+        ConflictUtils.checkVersion(dto.getVersion(), storage.getVersion());
+        storage.setIdentifier(dto.getIdentifier());
+        storage.setStatus(dto.getStatus() != null ? dto.getStatus() : true);
+        storage.setCategory(category.get());
+        storage.setResponsible(responsible);
+        Storage saved = ConflictUtils.saveUnique(() -> repository.saveAndFlush(storage), CONFLICT_MESSAGES);
         return new ResponseEntity<>(
-                new ApiResponse(storage, HttpStatus.OK),
+                new ApiResponse(saved, HttpStatus.OK),
                 HttpStatus.OK);
     }
 
@@ -167,16 +241,10 @@ public class StorageService {
                     HttpStatus.BAD_REQUEST);
         }
 
-        // Verificar si el usuario ya es responsable de otro almacén
-        if (repository.findByResponsibleId(userId).isPresent()) {
-            return new ResponseEntity<>(
-                    new ApiResponse("User is already responsible for another storage", HttpStatus.BAD_REQUEST),
-                    HttpStatus.BAD_REQUEST);
-        }
-
+        // Si el usuario ya es responsable de otro almacén lo rechaza la restricción única de responsible_id
         Storage existingStorage = storage.get();
         existingStorage.setResponsible(user.get());
-        repository.save(existingStorage);
+        ConflictUtils.saveUnique(() -> repository.saveAndFlush(existingStorage), RESPONSIBLE_TAKEN);
 
         return new ResponseEntity<>(
                 new ApiResponse(existingStorage, HttpStatus.OK),
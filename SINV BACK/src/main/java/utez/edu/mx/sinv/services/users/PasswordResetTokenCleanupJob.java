@@ -0,0 +1,108 @@
+package utez.edu.mx.sinv.services.users;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.models.passwordreset.PasswordResetTokenRepository;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Limpieza nocturna de tokens de restablecimiento vencidos, en lotes con una transacción por lote
+@Component
+public class PasswordResetTokenCleanupJob {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordResetTokenCleanupJob.class);
+    private static final String CLEANUP_METRIC = "sinv.password-reset.cleanup";
+
+    private final PasswordResetTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+    private final Counter deletedCounter;
+
+    @Value("${password-reset.cleanup.batch-size:1000}")
+    private int batchSize;
+
+    // Tope por corrida para que un atraso grande no deje la tarea corriendo durante horas
+    @Value("${password-reset.cleanup.max-batches:500}")
+    private int maxBatches;
+
+    // Pausa entre lotes para dejar pasar a las demás transacciones
+    @Value("${password-reset.cleanup.pause-ms:50}")
+    private long pauseMillis;
+
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalDeleted = new AtomicLong();
+    private volatile RunStats lastRun;
+
+    public PasswordResetTokenCleanupJob(PasswordResetTokenRepository repository, TransactionTemplate transactionTemplate,
+                                        MeterRegistry registry) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.registry = registry;
+        this.deletedCounter = Counter.builder(CLEANUP_METRIC + ".deleted")
+                .description("Tokens de restablecimiento vencidos borrados")
+                .baseUnit("rows")
+                .register(registry);
+    }
+
+    @Scheduled(cron = "${password-reset.cleanup.cron:0 0 3 * * ?}")
+    public void run() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        Date now = new Date();
+        int deleted = 0;
+        int batches = 0;
+        String error = null;
+        String result = "ok";
+
+        try {
+            while (batches < maxBatches) {
+                Integer count = transactionTemplate.execute(status -> repository.deleteExpiredBatch(now, batchSize));
+                batches++;
+                deleted += count == null ? 0 : count;
+                if (count == null || count < batchSize) break;
+                Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "interrupted";
+            result = "interrupted";
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            result = "error";
+            logger.error("Fallo la limpieza de tokens de restablecimiento", e);
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        long durationMillis = durationNanos / 1_000_000;
+        registry.timer(CLEANUP_METRIC, "result", result).record(durationNanos, TimeUnit.NANOSECONDS);
+        deletedCounter.increment(deleted);
+        totalRuns.incrementAndGet();
+        totalDeleted.addAndGet(deleted);
+        lastRun = new RunStats(startedAt, durationMillis, deleted, batches, error);
+        logger.info("Limpieza de tokens: {} borrados en {} lotes, {} ms", deleted, batches, durationMillis);
+    }
+
+    public ResponseEntity<ApiResponse> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalRuns", totalRuns.get());
+        stats.put("totalDeleted", totalDeleted.get());
+        stats.put("lastRun", lastRun);
+        return new ResponseEntity<>(new ApiResponse(stats, HttpStatus.OK), HttpStatus.OK);
+    }
+
+    public record RunStats(LocalDateTime startedAt, long durationMillis, int deleted, int batches, String error) {
+    }
+}
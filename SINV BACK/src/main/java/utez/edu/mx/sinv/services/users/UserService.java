@@ -3,16 +3,31 @@ package utez.edu.mx.sinv.services.users;
 import utez.edu.mx.sinv.config.ApiResponse;
 import utez.edu.mx.sinv.models.passwordreset.PasswordResetToken;
 import utez.edu.mx.sinv.models.passwordreset.PasswordResetTokenRepository;
+import utez.edu.mx.sinv.models.role.Role;
+import utez.edu.mx.sinv.models.role.RoleRepository;
 import utez.edu.mx.sinv.models.storage.Storage;
 import utez.edu.mx.sinv.models.storage.StorageRepository;
 import utez.edu.mx.sinv.models.user.Users;
 import utez.edu.mx.sinv.models.user.UsersRepository;
+import utez.edu.mx.sinv.models.user.UsersSpecifications;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+import utez.edu.mx.sinv.security.jwt.TokenDenyList;
+import utez.edu.mx.sinv.security.ratelimit.LoginRateLimiter;
+import utez.edu.mx.sinv.services.auth.RefreshTokenService;
+import utez.edu.mx.sinv.services.mail.MailOutboxService;
+import utez.edu.mx.sinv.utils.ConflictUtils;
+import utez.edu.mx.sinv.utils.PageableUtils;
 import org.apache.commons.lang.RandomStringUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
@@ -22,25 +37,45 @@ import java.util.*;
 public class UserService {
     // Constantes para mensajes y claves repetidas
     private static final String VALID_KEY = "valid";
-    private static final String EMAIL_EXISTS_MESSAGE = "El correo electrónico ya está registrado";
+    private static final String USER_EXISTS_MESSAGE = "El correo electrónico o el nombre de usuario ya está registrado";
     private static final String USER_NOT_FOUND_MESSAGE = "Usuario no encontrado";
     private static final int TOKEN_LENGTH = 10;
     private static final int TOKEN_EXPIRATION_HOURS = 1;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "username", "fullName", "email", "status");
 
     private final UsersRepository usersRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final StorageRepository storageRepository;
+    private final TokenDenyList tokenDenyList;
+    private final RoleRepository roleRepository;
+    private final MailOutboxService mailOutboxService;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginRateLimiter rateLimiter;
 
     public UserService(UsersRepository usersRepository,
-                       PasswordResetTokenRepository passwordResetTokenRepository, StorageRepository storageRepository) {
+                       PasswordResetTokenRepository passwordResetTokenRepository, StorageRepository storageRepository,
+                       TokenDenyList tokenDenyList, RoleRepository roleRepository,
+                       MailOutboxService mailOutboxService, PasswordEncoder passwordEncoder,
+                       RefreshTokenService refreshTokenService, LoginRateLimiter rateLimiter) {
         this.usersRepository = usersRepository;
+        this.roleRepository = roleRepository;
+        this.mailOutboxService = mailOutboxService;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.storageRepository = storageRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();}
+        this.tokenDenyList = tokenDenyList;
+        this.passwordEncoder = passwordEncoder;
+        this.refreshTokenService = refreshTokenService;
+        this.rateLimiter = rateLimiter;
+    }
 
+    // Sin transacción: la lectura del hash usa la transacción corta del repositorio y el BCrypt
+    // (incluida la espera en el pool de hash) corre sin retener una conexión de la base de datos
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ResponseEntity<Map<String, Object>> verifyPassword(Long userId, String password) {
         Map<String, Object> response = new HashMap<>();
+        String account = userId == null ? null : userId.toString();
+        rateLimiter.reserveAccount(LoginRateLimiter.VERIFY_PASSWORD, account);
         try {
             Optional<Users> userOpt = usersRepository.findById(userId);
             if (userOpt.isEmpty()) {
@@ -49,13 +84,19 @@ public class UserService {
             }
 
             Users user = userOpt.get();
-            if (!user.getPassword().startsWith("$2a$")) {
+            // Hash con prefijo de algoritmo ({bcrypt}...) o BCrypt heredado sin prefijo ($2a$, $2b$, $2y$)
+            if (!user.getPassword().startsWith("{") && !user.getPassword().startsWith("$2")) {
                 response.put(VALID_KEY, false);
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
             }
 
-            response.put(VALID_KEY, passwordEncoder.matches(password, user.getPassword()));
+            boolean valid = passwordEncoder.matches(password, user.getPassword());
+            if (valid) rateLimiter.refundAccount(LoginRateLimiter.VERIFY_PASSWORD, account);
+            response.put(VALID_KEY, valid);
             return ResponseEntity.ok(response);
+        } catch (GlobalExceptionHandler.ServiceUnavailableException e) {
+            rateLimiter.refundAccount(LoginRateLimiter.VERIFY_PASSWORD, account);
+            throw e;
         } catch (Exception e) {
             response.put(VALID_KEY, false);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
@@ -73,6 +114,20 @@ public class UserService {
         return new ResponseEntity<>(new ApiResponse(usersRepository.findAll(), HttpStatus.OK), HttpStatus.OK);
     }
 
+    // Listado paginado con filtros resueltos en la consulta
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponse> getPage(String search, Boolean status, String roleName, Pageable pageable) {
+        List<Specification<Users>> filters = new ArrayList<>();
+        if (search != null && !search.isBlank()) filters.add(UsersSpecifications.matches(search));
+        if (status != null) filters.add(UsersSpecifications.hasStatus(status));
+        if (roleName != null && !roleName.isBlank()) filters.add(UsersSpecifications.hasRole(roleName));
+
+        Page<Users> page = usersRepository.findAll(
+                Specification.allOf(filters),
+                PageableUtils.sanitize(pageable, SORTABLE_FIELDS, Sort.by("id")));
+        return new ResponseEntity<>(new ApiResponse(new PagedModel<>(page), HttpStatus.OK), HttpStatus.OK);
+    }
+
     @Transactional(readOnly = true)
     public ResponseEntity<ApiResponse> getUserById(Long id) {
         return usersRepository.findById(id)
@@ -82,22 +137,27 @@ public class UserService {
 
     @Transactional
     public ResponseEntity<ApiResponse> deleteUserById(Long id) {
-        if (!usersRepository.existsById(id)) {
+        Optional<Users> user = usersRepository.findById(id);
+        if (user.isEmpty()) {
             return new ResponseEntity<>(new ApiResponse(USER_NOT_FOUND_MESSAGE, HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
         }
         usersRepository.deleteById(id);
+        // Los tokens del usuario eliminado dejan de ser válidos de inmediato
+        tokenDenyList.revoke(user.get().getEmail());
+        refreshTokenService.revokeUser(id);
         return new ResponseEntity<>(new ApiResponse(), HttpStatus.OK);
     }
 
     @Transactional
     public ResponseEntity<ApiResponse> saveWorker(Users worker) {
-        if (usersRepository.findByEmail(worker.getEmail()).isPresent()) {
-            return new ResponseEntity<>(new ApiResponse(EMAIL_EXISTS_MESSAGE, HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
-        }
+        // Correo y usuario repetidos los rechazan las restricciones únicas de la tabla
+        worker.setId(null);
+        worker.setVersion(null);
         worker.setStatus(true);
         worker.setPassword(passwordEncoder.encode(worker.getPassword()));
+        worker.setRole(resolveRole(worker.getRole()));
 
-        Users savedUser = usersRepository.save(worker);
+        Users savedUser = ConflictUtils.saveUnique(() -> usersRepository.saveAndFlush(worker), USER_EXISTS_MESSAGE);
         return new ResponseEntity<>(new ApiResponse(savedUser, HttpStatus.OK), HttpStatus.OK);
     }
 
@@ -105,6 +165,14 @@ public class UserService {
     public ResponseEntity<ApiResponse> updateUserById(Users updatedUser) {
         return usersRepository.findById(updatedUser.getId())
                 .map(existingUser -> {
+                    ConflictUtils.checkVersion(updatedUser.getVersion(), existingUser.getVersion());
+
+                    // Datos que viajan en el token; si cambian, los tokens anteriores se revocan
+                    String previousEmail = existingUser.getEmail();
+                    Long previousRoleId = existingUser.getRole() != null ? existingUser.getRole().getId() : null;
+                    Boolean previousStatus = existingUser.getStatus();
+                    String previousPassword = existingUser.getPassword();
+
                     // Actualizar campos básicos
                     if (updatedUser.getUsername() != null) {
                         existingUser.setUsername(updatedUser.getUsername());
@@ -116,16 +184,14 @@ public class UserService {
                     // Actualizar contraseña si se proporciona
                     updateUserPasswordIfNeeded(updatedUser, existingUser);
 
-                    // Actualizar email con validación
-                    if (!updateUserEmailIfValid(updatedUser, existingUser)) {
-                        return new ResponseEntity<>(
-                                new ApiResponse(EMAIL_EXISTS_MESSAGE, HttpStatus.BAD_REQUEST),
-                                HttpStatus.BAD_REQUEST);
+                    // Actualizar email; si ya existe lo rechaza la restricción única al guardar
+                    if (updatedUser.getEmail() != null && !updatedUser.getEmail().isEmpty()) {
+                        existingUser.setEmail(updatedUser.getEmail());
                     }
 
                     // Actualizar rol si se proporciona
                     if (updatedUser.getRole() != null) {
-                        existingUser.setRole(updatedUser.getRole());
+                        existingUser.setRole(resolveRole(updatedUser.getRole()));
                     }
 
                     // Actualizar estado si se proporciona
@@ -133,7 +199,19 @@ public class UserService {
                         existingUser.setStatus(updatedUser.getStatus());
                     }
 
-                    Users savedUser = usersRepository.save(existingUser);
+                    Users savedUser = ConflictUtils.saveUnique(
+                            () -> usersRepository.saveAndFlush(existingUser), USER_EXISTS_MESSAGE);
+
+                    Long currentRoleId = savedUser.getRole() != null ? savedUser.getRole().getId() : null;
+                    if (!Objects.equals(previousEmail, savedUser.getEmail())
+                            || !Objects.equals(previousRoleId, currentRoleId)
+                            || !Objects.equals(previousStatus, savedUser.getStatus())) {
+                        tokenDenyList.revoke(previousEmail);
+                        refreshTokenService.revokeUser(savedUser.getId());
+                    } else if (!Objects.equals(previousPassword, savedUser.getPassword())) {
+                        // Con otra contraseña las sesiones abiertas ya no pueden renovarse
+                        refreshTokenService.revokeUser(savedUser.getId());
+                    }
                     return new ResponseEntity<>(new ApiResponse(savedUser, HttpStatus.OK), HttpStatus.OK);
                 })
                 .orElseGet(() -> new ResponseEntity<>(
@@ -141,23 +219,18 @@ public class UserService {
                         HttpStatus.BAD_REQUEST));
     }
 
+    // El DTO solo trae el id del rol; el rol completo sale del cache de segundo nivel
+    private Role resolveRole(Role role) {
+        if (role == null || role.getId() == null) return role;
+        return roleRepository.findById(role.getId()).orElse(role);
+    }
+
     private void updateUserPasswordIfNeeded(Users updatedUser, Users existingUser) {
         if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
             existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
         }
     }
 
-    private boolean updateUserEmailIfValid(Users updatedUser, Users existingUser) {
-        if (updatedUser.getEmail() != null && !updatedUser.getEmail().isEmpty()
-                && !updatedUser.getEmail().equals(existingUser.getEmail())) {
-            if (usersRepository.findByEmail(updatedUser.getEmail()).isPresent()) {
-                return false;
-            }
-            existingUser.setEmail(updatedUser.getEmail());
-        }
-        return true;
-    }
-
 
 
     @Transactional
@@ -166,6 +239,8 @@ public class UserService {
                 .map(user -> {
                     user.setStatus(!user.getStatus()); // Invierte el estado actual
                     Users updatedUser = usersRepository.save(user);
+                    tokenDenyList.revoke(user.getEmail());
+                    refreshTokenService.revokeUser(user.getId());
                     return new ResponseEntity<>(
                             new ApiResponse(updatedUser, HttpStatus.OK),
                             HttpStatus.OK);
@@ -181,6 +256,7 @@ public class UserService {
                 .map(user -> {
                     user.setPassword(passwordEncoder.encode(newPassword));
                     Users updatedUser = usersRepository.save(user);
+                    refreshTokenService.revokeUser(userId);
                     return new ResponseEntity<>(new ApiResponse(updatedUser, HttpStatus.OK), HttpStatus.OK);
                 })
                 .orElseGet(() -> new ResponseEntity<>(new ApiResponse(USER_NOT_FOUND_MESSAGE, HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST));
@@ -191,8 +267,20 @@ public class UserService {
         return usersRepository.findByEmail(email);
     }
 
+    // Transacción propia y corta: el login no abre transacción y no guarda la entidad que cargó
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Users> rehashPassword(String email, String encodedPassword) {
+        return usersRepository.findByEmail(email)
+                .map(user -> {
+                    user.setPassword(encodedPassword);
+                    return user;
+                });
+    }
+
     @Transactional
     public String generatePasswordResetToken(Long userId) {
+        // Cada solicitud envía un correo, así que todas consumen del balde de la cuenta
+        rateLimiter.acquireForAccount(LoginRateLimiter.PASSWORD_RESET, String.valueOf(userId));
         Users user = usersRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException(USER_NOT_FOUND_MESSAGE));
 
@@ -208,6 +296,9 @@ public class UserService {
         resetToken.setUsed(false);
 
         passwordResetTokenRepository.save(resetToken);
+
+        // El correo se encola en la misma transacción y se envía después del commit
+        mailOutboxService.enqueuePasswordReset(user.getEmail(), token);
         return token;
     }
 
@@ -226,12 +317,6 @@ public class UserService {
         });
     }
 
-    @Scheduled(cron = "0 0 3 * * ?")
-    @Transactional
-    public void cleanupExpiredTokens() {
-        passwordResetTokenRepository.deleteExpiredTokens(new Date());
-    }
-
 
     // Agregar estos métodos al UserService existente
 
@@ -262,9 +347,10 @@ public class UserService {
                                 HttpStatus.BAD_REQUEST);
                     }
 
-                    // Asignar el usuario como responsable del almacén
+                    // Asignar el usuario como responsable del almacén; si ya tiene otro lo rechaza la restricción única
                     storage.get().setResponsible(user);
-                    storageRepository.save(storage.get());
+                    ConflictUtils.saveUnique(() -> storageRepository.saveAndFlush(storage.get()),
+                            "User is already responsible for another storage");
 
                     return new ResponseEntity<>(
                             new ApiResponse(storage.get(), HttpStatus.OK),
@@ -297,9 +383,6 @@ public class UserService {
         response.put("token", token);
         response.put(VALID_KEY, true);
 
-        // Aquí podrías enviar el token por correo electrónico al usuario
-        // sendEmail(user.getEmail(), token);
-
         return ResponseEntity.ok(response);
     }
 
@@ -325,6 +408,7 @@ public class UserService {
         Users user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         usersRepository.save(user);
+        refreshTokenService.revokeUser(user.getId());
 
         markTokenAsUsed(token);
         response.put(VALID_KEY, "true");
@@ -0,0 +1,84 @@
+package utez.edu.mx.sinv.utils;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Las restricciones únicas y @Version de la base de datos son la validación; aquí solo se traducen a 409
+public final class ConflictUtils {
+    public static final String STALE_VERSION = "The resource was modified by another user, reload and try again";
+    public static final String VERSION_REQUIRED = "The version of the edited resource is required";
+    public static final String DUPLICATED_RECORD = "The data conflicts with an existing record";
+
+    // Llave duplicada: MySQL reporta el código 1062 con el estado genérico 23000; H2 y PostgreSQL el estado 23505
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+    private ConflictUtils() {
+    }
+
+    // El cliente envía la versión que leyó; sin ella no se detecta lo editado entre su lectura y el guardado
+    public static void checkVersion(Long expected, Long current) {
+        if (expected == null) {
+            throw new IllegalArgumentException(VERSION_REQUIRED);
+        }
+        if (!expected.equals(current)) {
+            throw new GlobalExceptionHandler.ConflictException(STALE_VERSION);
+        }
+    }
+
+    // Se usa con saveAndFlush para que la violación ocurra aquí y no al confirmar la transacción
+    public static <T> T saveUnique(Supplier<T> save, String conflictMessage) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            throw new GlobalExceptionHandler.ConflictException(conflictMessage);
+        }
+    }
+
+    // Para tablas con varias llaves únicas: el mensaje se elige por el nombre de la restricción violada
+    public static <T> T saveUnique(Supplier<T> save, Map<String, String> conflictMessages) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            String constraint = constraintName(e);
+            String message = conflictMessages.entrySet().stream()
+                    .filter(entry -> constraint != null && constraint.contains(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(DUPLICATED_RECORD);
+            throw new GlobalExceptionHandler.ConflictException(message);
+        }
+    }
+
+    // Foráneas, nulos y longitudes también son DataIntegrityViolationException, pero no chocan con otro registro
+    public static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                return sql.getErrorCode() == MYSQL_DUPLICATE_ENTRY || UNIQUE_VIOLATION_STATE.equals(sql.getSQLState());
+            }
+        }
+        return false;
+    }
+
+    // Cada base lo reporta distinto (MySQL "tabla.llave", H2 "esquema.llave_index_x on ..."), se compara por contenido
+    private static String constraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package utez.edu.mx.sinv.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvUtils {
+    private CsvUtils() {
+    }
+
+    // Escapa un valor para escribirlo como campo CSV
+    public static String escape(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // Lector de registros RFC 4180: un campo entre comillas puede contener comas, comillas dobladas ("")
+    // y saltos de línea, así que un registro no siempre corresponde a una línea del archivo
+    public static final class RecordReader {
+        private final Reader reader;
+        private int pushback = -1;
+        private int line = 1;
+        private int recordLine;
+
+        public RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        // Línea del archivo donde empieza el último registro leído, para reportar errores
+        public int recordLine() {
+            return recordLine;
+        }
+
+        // Devuelve null al final del archivo
+        public List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) return null;
+            recordLine = line;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next != '"') {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                        current.append('"');
+                    } else {
+                        if (c == '\n') line++;
+                        current.append((char) c);
+                    }
+                } else if (c == '"' && current.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') pushback = next;
+                    }
+                    if (c != -1) line++;
+                    fields.add(current.toString());
+                    return fields;
+                } else {
+                    current.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushback != -1) {
+                int c = pushback;
+                pushback = -1;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
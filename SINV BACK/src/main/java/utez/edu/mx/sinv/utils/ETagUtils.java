@@ -0,0 +1,53 @@
+package utez.edu.mx.sinv.utils;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import utez.edu.mx.sinv.config.ApiResponse;
+
+import java.util.function.Supplier;
+
+public final class ETagUtils {
+
+    private ETagUtils() {
+    }
+
+    public static String of(String kind, VersionStamp... stamps) {
+        StringBuilder etag = new StringBuilder("\"").append(kind);
+        for (VersionStamp stamp : stamps) {
+            etag.append('-').append(Long.toHexString(stamp.count()))
+                    .append('.').append(Long.toHexString(stamp.versionSum()))
+                    .append('.').append(Long.toHexString(stamp.idSum()));
+        }
+        return etag.append('"').toString();
+    }
+
+    // Si el cliente ya tiene la versión actual responde 304 sin cargar ni serializar nada.
+    // El ETag se calcula antes de cargar los datos: en una carrera el cuerpo puede ser más nuevo que
+    // la etiqueta (el cliente solo volverá a descargar), pero nunca más viejo.
+    public static ResponseEntity<ApiResponse> conditional(WebRequest request, String etag,
+                                                          Supplier<ResponseEntity<ApiResponse>> loader) {
+        if (etag == null) {
+            return loader.get();
+        }
+        // no-cache (y no no-store) permite que el navegador guarde la respuesta y la revalide con If-None-Match
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        ResponseEntity<ApiResponse> response = loader.get();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(response.getBody());
+    }
+}
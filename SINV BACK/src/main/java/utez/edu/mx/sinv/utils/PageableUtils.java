@@ -0,0 +1,27 @@
+package utez.edu.mx.sinv.utils;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+public final class PageableUtils {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private PageableUtils() {
+    }
+
+    // Limita el tamaño de página y descarta ordenamientos sobre campos no permitidos
+    public static Pageable sanitize(Pageable pageable, Set<String> allowedSorts, Sort defaultSort) {
+        int size = Math.min(Math.max(pageable.getPageSize(), 1), MAX_PAGE_SIZE);
+
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .filter(order -> allowedSorts.contains(order.getProperty()))
+                .toList());
+        if (sort.isUnsorted()) {
+            sort = defaultSort;
+        }
+        return PageRequest.of(pageable.getPageNumber(), size, sort);
+    }
+}
@@ -0,0 +1,7 @@
+package utez.edu.mx.sinv.utils;
+
+// Resumen de un conjunto de filas para validar caches HTTP. Las versiones solo crecen, así que cualquier
+// UPDATE cambia la suma; las altas y bajas cambian el conteo o la suma de ids.
+// Con solo max(version) un cambio en una fila con versión baja pasaría desapercibido.
+public record VersionStamp(Long count, Long versionSum, Long idSum) {
+}
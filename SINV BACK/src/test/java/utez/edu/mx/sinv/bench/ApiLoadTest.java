@@ -0,0 +1,127 @@
+package utez.edu.mx.sinv.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Línea base de rendimiento de la API completa; los resultados se agregan a target/loadtest/report.txt
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ApiLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(ApiLoadTest.class);
+    private static final Path REPORT = Path.of("target", "loadtest", "report.txt");
+    private static final String ADMIN_SIGNIN = "{\"email\":\"20223tn016@utez.edu.mx\",\"password\":\"admin\"}";
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${loadtest.categories}")
+    int categories;
+
+    @Value("${loadtest.storages}")
+    int storages;
+
+    @Value("${loadtest.articles}")
+    int articles;
+
+    @Value("${loadtest.concurrency}")
+    int concurrency;
+
+    @Value("${loadtest.requests}")
+    int requests;
+
+    @Value("${loadtest.warmup-requests}")
+    int warmupRequests;
+
+    @Value("${loadtest.signin.concurrency}")
+    int signinConcurrency;
+
+    @Value("${loadtest.signin.requests}")
+    int signinRequests;
+
+    private String token;
+
+    @BeforeAll
+    void seed() throws Exception {
+        BenchDataSeeder.seed(jdbcTemplate, categories, storages, articles);
+        token = signIn();
+    }
+
+    @Test
+    void articles() throws Exception {
+        measure("GET /api/articles/", List.of(get("/api/articles/")), concurrency, requests);
+    }
+
+    @Test
+    void storages() throws Exception {
+        measure("GET /api/storage/", List.of(get("/api/storage/")), concurrency, requests);
+    }
+
+    @Test
+    void signin() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ADMIN_SIGNIN))
+                .build();
+        measure("POST /api/auth/signin", List.of(request), signinConcurrency, signinRequests);
+    }
+
+    private void measure(String name, List<HttpRequest> mix, int concurrency, int total) throws Exception {
+        LoadDriver driver = new LoadDriver(concurrency);
+        driver.run(name + " warmup", mix, Math.min(warmupRequests, total));
+        LoadDriver.Report report = driver.run(name, mix, total);
+
+        report.appendTo(REPORT);
+        logger.info(report.toLine());
+        assertEquals(0, report.errors(), "Requests failed under load: " + name);
+    }
+
+    private String signIn() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ADMIN_SIGNIN))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.path("data").path("token").asText();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,101 @@
+package utez.edu.mx.sinv.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Mide los endpoints de artículos con carga concurrente; las subclases fijan el modo de hilos
+@Tag("bench")
+@ActiveProfiles("bench")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class ArticleEndpointsLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(ArticleEndpointsLoadTest.class);
+    static final Path REPORT = Path.of("target", "bench", "thread-modes.txt");
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${bench.articles}")
+    int articles;
+
+    @Value("${bench.concurrency}")
+    int concurrency;
+
+    @Value("${bench.requests}")
+    int requests;
+
+    @Value("${bench.warmup-requests}")
+    int warmupRequests;
+
+    abstract String mode();
+
+    @Test
+    void articleEndpointsUnderLoad() throws Exception {
+        BenchDataSeeder.seedArticles(jdbcTemplate, articles);
+        String token = signIn();
+
+        List<HttpRequest> mix = new ArrayList<>();
+        for (int page = 0; page < 10; page++) {
+            mix.add(get("/api/articles/page?page=" + page + "&size=20&sort=name", token));
+        }
+        mix.add(get("/api/articles/cursor?sort=name&size=50", token));
+        for (long id = 1; id <= 10; id++) {
+            mix.add(get("/api/articles/" + id, token));
+        }
+
+        LoadDriver driver = new LoadDriver(concurrency);
+        driver.run(mode() + " warmup", mix, warmupRequests);
+        LoadDriver.Report report = driver.run(mode() + " articles", mix, requests);
+
+        report.appendTo(REPORT);
+        logger.info(report.toLine());
+        assertEquals(0, report.errors(), "Requests failed under load");
+    }
+
+    private String signIn() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"20223tn016@utez.edu.mx\",\"password\":\"admin\"}"))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.path("data").path("token").asText();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,81 @@
+package utez.edu.mx.sinv.bench;
+
+import org.openjdk.jmh.annotations.*;
+import utez.edu.mx.sinv.services.articles.ArticleSearchIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Búsqueda en el índice en memoria a la escala objetivo (un millón de artículos).
+// Las palabras siguen una distribución sesgada, como en un catálogo real: pocas muy comunes y una cola larga
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ArticleSearchBenchmark {
+    private static final String[] COMMON = {"de", "para", "con", "pieza", "juego"};
+
+    @Param({"100000", "1000000"})
+    public int articles;
+
+    private ArticleSearchIndex index;
+    private String[] vocabulary;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++) vocabulary[i] = word(random);
+
+        index = new ArticleSearchIndex(null);
+        for (long id = 1; id <= articles; id++) {
+            index.index(id, words(random, 3), words(random, 10) + " " + COMMON[random.nextInt(COMMON.length)]);
+        }
+    }
+
+    @Benchmark
+    public List<ArticleSearchIndex.Hit> rareTerm() {
+        return index.search(vocabulary[15_000], 20, false);
+    }
+
+    @Benchmark
+    public List<ArticleSearchIndex.Hit> frequentTerm() {
+        return index.search(vocabulary[0], 20, false);
+    }
+
+    @Benchmark
+    public List<ArticleSearchIndex.Hit> multipleTermsWithStopWord() {
+        return index.search(vocabulary[3] + " de " + vocabulary[400] + " " + vocabulary[9_000], 20, false);
+    }
+
+    // Prefijo corto del último término: la expansión más cara
+    @Benchmark
+    public List<ArticleSearchIndex.Hit> shortPrefix() {
+        return index.search(vocabulary[10] + " " + vocabulary[0].substring(0, 2), 20, false);
+    }
+
+    @Benchmark
+    public List<ArticleSearchIndex.Hit> fuzzy() {
+        String word = vocabulary[500];
+        return index.search(word.substring(0, word.length() - 1) + "x", 20, true);
+    }
+
+    // Sesgo cúbico: los primeros índices del vocabulario aparecen en una fracción grande del catálogo
+    private String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double skew = random.nextDouble();
+            text.append(vocabulary[(int) (skew * skew * skew * vocabulary.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static String word(Random random) {
+        char[] letters = new char[5 + random.nextInt(6)];
+        for (int i = 0; i < letters.length; i++) letters[i] = (char) ('a' + random.nextInt(26));
+        return new String(letters);
+    }
+}
@@ -0,0 +1,79 @@
+package utez.edu.mx.sinv.bench;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Llena la base de pruebas con categorías, almacenes y artículos para las mediciones
+public final class BenchDataSeeder {
+    private static final int DEFAULT_CATEGORIES = 20;
+    private static final int BATCH_SIZE = 1000;
+
+    private BenchDataSeeder() {
+    }
+
+    public static void seedArticles(JdbcTemplate jdbcTemplate, int articles) {
+        seed(jdbcTemplate, DEFAULT_CATEGORIES, 0, articles);
+    }
+
+    // Cada artículo pertenece a la categoría i % categorías y, si hay almacenes, se asigna a uno de su misma categoría
+    public static void seed(JdbcTemplate jdbcTemplate, int categories, int storages, int articles) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM articles", Integer.class);
+        if (existing != null && existing >= articles) return;
+
+        List<Object[]> categoryRows = new ArrayList<>();
+        for (int i = 1; i <= categories; i++) {
+            categoryRows.add(new Object[]{"Categoria bench " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (name, status) VALUES (?, true)", categoryRows);
+        List<Long> categoryIds = jdbcTemplate.queryForList(
+                "SELECT id FROM categories WHERE name LIKE 'Categoria bench %' ORDER BY id", Long.class);
+
+        List<Object[]> storageRows = new ArrayList<>();
+        for (int i = 0; i < storages; i++) {
+            storageRows.add(new Object[]{String.format("B-%05d", i + 1), categoryIds.get(i % categoryIds.size())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO storages (identifier, status, category_id) VALUES (?, true, ?)",
+                storageRows, BATCH_SIZE, (ps, row) -> {
+                    ps.setString(1, (String) row[0]);
+                    ps.setLong(2, (Long) row[1]);
+                });
+        List<Long> storageIds = jdbcTemplate.queryForList(
+                "SELECT id FROM storages WHERE identifier LIKE 'B-%' ORDER BY id", Long.class);
+
+        List<Object[]> articleRows = new ArrayList<>(articles);
+        for (int i = 1; i <= articles; i++) {
+            articleRows.add(new Object[]{
+                    String.format("Articulo bench %06d", i),
+                    "Artículo generado para las pruebas de carga",
+                    categoryIds.get(i % categoryIds.size())
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO articles (name, description, status, category_id) VALUES (?, ?, true, ?)",
+                articleRows, BATCH_SIZE, (ps, row) -> {
+                    ps.setString(1, (String) row[0]);
+                    ps.setString(2, (String) row[1]);
+                    ps.setLong(3, (Long) row[2]);
+                });
+
+        if (storageIds.isEmpty()) return;
+
+        // El almacén i % almacenes tiene la categoría i % categorías, así que se busca uno con el mismo residuo
+        List<Long> articleIds = jdbcTemplate.queryForList(
+                "SELECT id FROM articles WHERE name LIKE 'Articulo bench %' ORDER BY id", Long.class);
+        List<Object[]> links = new ArrayList<>(articleIds.size());
+        for (int i = 0; i < articleIds.size(); i++) {
+            int categoryIndex = (i + 1) % categoryIds.size();
+            int storagesInCategory = (storageIds.size() - categoryIndex + categoryIds.size() - 1) / categoryIds.size();
+            if (storagesInCategory == 0) continue;
+            int storageIndex = categoryIndex + (i % storagesInCategory) * categoryIds.size();
+            links.add(new Object[]{articleIds.get(i), storageIds.get(storageIndex)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO storage_has_articles (article_id, storage_id) VALUES (?, ?)",
+                links, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setLong(2, (Long) row[1]);
+                });
+    }
+}
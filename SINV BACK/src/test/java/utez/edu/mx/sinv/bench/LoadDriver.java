@@ -0,0 +1,92 @@
+package utez.edu.mx.sinv.bench;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Generador de carga HTTP: mantiene N peticiones en vuelo y mide la latencia de cada una
+public final class LoadDriver {
+    private final HttpClient client;
+    private final int concurrency;
+
+    public LoadDriver(int concurrency) {
+        this.concurrency = concurrency;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    // Las peticiones se toman en orden circular de la lista
+    public Report run(String name, List<HttpRequest> requests, int total) throws InterruptedException {
+        long[] latencies = new long[total];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                inFlight.acquire();
+                int index = i;
+                HttpRequest request = requests.get(i % requests.size());
+                workers.execute(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) errors.incrementAndGet();
+                    } catch (IOException | InterruptedException e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - sent;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Report(name, total, errors.get(), concurrency, elapsed,
+                percentile(latencies, 50), percentile(latencies, 90),
+                percentile(latencies, 99), latencies[latencies.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public record Report(String name, int requests, int errors, int concurrency, long elapsedNanos,
+                         long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+
+        public double throughput() {
+            return requests / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        public String toLine() {
+            return String.format(Locale.ROOT,
+                    "%-40s requests=%d errors=%d concurrency=%d throughput=%.1f req/s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                    name, requests, errors, concurrency, throughput(),
+                    p50Nanos / 1e6, p90Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+        }
+
+        // Agrega la línea al reporte en target/ para comparar corridas
+        public void appendTo(Path file) throws IOException {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, toLine() + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package utez.edu.mx.sinv.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// BCrypt.matches con distintos costos: cada punto extra duplica el tiempo del login.
+// Sirve para elegir security.bcrypt.strength (o security.bcrypt.target-millis si se calibra al arrancar)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "8", "10", "11", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordEncoder delegating;
+    private String hash;
+    private String prefixedHash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("admin-password");
+        delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", encoder));
+        prefixedHash = delegating.encode("admin-password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("admin-password", hash);
+    }
+
+    // El prefijo {bcrypt} no debe agregar un costo medible frente al hash
+    @Benchmark
+    public boolean delegatingMatches() {
+        return delegating.matches("admin-password", prefixedHash);
+    }
+}
@@ -0,0 +1,15 @@
+package utez.edu.mx.sinv.bench;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Tomcat con su pool de hilos de plataforma
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=false",
+        "server.tomcat.threads.max=${bench.platform.max-threads:200}"
+})
+class PlatformThreadsLoadTest extends ArticleEndpointsLoadTest {
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
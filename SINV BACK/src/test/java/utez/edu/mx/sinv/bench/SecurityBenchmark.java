@@ -0,0 +1,90 @@
+package utez.edu.mx.sinv.bench;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import utez.edu.mx.sinv.models.role.Role;
+import utez.edu.mx.sinv.models.user.Users;
+import utez.edu.mx.sinv.security.entity.UserDetailsImpl;
+import utez.edu.mx.sinv.security.jwt.JwtProvider;
+import utez.edu.mx.sinv.security.jwt.VerifiedTokenCache;
+
+import java.util.concurrent.TimeUnit;
+
+// Costo por petición de la autenticación JWT: emisión, verificación (con y sin cache) y armado del principal
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityBenchmark {
+    private static final String SECRET = "c2ludi1iZW5jaC1zZWNyZXQta2V5LXRoYXQtaXMtbG9uZy1lbm91Z2gtZm9yLWhzMjU2";
+
+    private JwtProvider cachedProvider;
+    private JwtProvider uncachedProvider;
+    private Authentication authentication;
+    private Users user;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = provider(60);
+        // Con ttl 0 cada verificación vuelve a validar la firma HMAC
+        uncachedProvider = provider(0);
+
+        user = new Users("bench", "Usuario Bench", "bench@sinv.test", "$2a$10$hash", true);
+        user.setRole(new Role("ADMINISTRADOR"));
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        token = cachedProvider.generateToken(authentication);
+        claims = cachedProvider.resolveClaims(token);
+    }
+
+    private static JwtProvider provider(long cacheTtlSeconds) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", cacheTtlSeconds);
+        ReflectionTestUtils.setField(cache, "maxSize", 10000);
+
+        JwtProvider provider = new JwtProvider(cache, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "secret", SECRET);
+        ReflectionTestUtils.setField(provider, "expiration", 3600L);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Claims resolveClaimsCached() {
+        return cachedProvider.resolveClaims(token);
+    }
+
+    @Benchmark
+    public Claims resolveClaimsUncached() {
+        return uncachedProvider.resolveClaims(token);
+    }
+
+    @Benchmark
+    public boolean validateClaims() {
+        return cachedProvider.validateClaims(claims);
+    }
+
+    @Benchmark
+    public UserDetailsImpl userDetailsBuild() {
+        return UserDetailsImpl.build(user);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildPrincipalFromClaims() {
+        return cachedProvider.buildPrincipal(claims);
+    }
+}
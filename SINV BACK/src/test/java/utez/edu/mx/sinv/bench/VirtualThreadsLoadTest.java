@@ -0,0 +1,12 @@
+package utez.edu.mx.sinv.bench;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Tomcat, @Async y las tareas programadas sobre hilos virtuales
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsLoadTest extends ArticleEndpointsLoadTest {
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,211 @@
+package utez.edu.mx.sinv.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import utez.edu.mx.sinv.models.role.RoleRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Duplicados y versiones viejas deben llegar al cliente como 409 por los endpoints reales, no como 500
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConflictResponsesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private String token;
+
+    @BeforeEach
+    void signIn() throws Exception {
+        JsonNode body = json(mockMvc.perform(post("/api/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"20223tn016@utez.edu.mx\",\"password\":\"admin\"}")));
+        token = body.path("data").path("token").asText();
+    }
+
+    @Test
+    void duplicatedArticleNameIsAConflict() throws Exception {
+        long categoryId = createCategory("Conflicto artículos");
+        Map<String, Object> article = article(null, "Artículo duplicado", categoryId, null);
+
+        perform(post("/api/articles/"), article).andExpect(status().isCreated());
+        perform(post("/api/articles/"), article).andExpect(status().isConflict());
+    }
+
+    @Test
+    void staleArticleVersionIsAConflict() throws Exception {
+        long categoryId = createCategory("Versión artículos");
+        JsonNode created = json(perform(post("/api/articles/"), article(null, "Artículo versionado", categoryId, null))
+                .andExpect(status().isCreated())).path("data");
+        long id = created.path("id").asLong();
+        long readVersion = created.path("version").asLong();
+
+        perform(put("/api/articles/" + id), article(id, "Artículo versionado A", categoryId, readVersion))
+                .andExpect(status().isOk());
+        perform(put("/api/articles/" + id), article(id, "Artículo versionado B", categoryId, readVersion))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void updateWithoutVersionIsRejected() throws Exception {
+        long categoryId = createCategory("Sin versión");
+        long id = json(perform(post("/api/articles/"), article(null, "Artículo sin versión", categoryId, null))
+                .andExpect(status().isCreated())).path("data").path("id").asLong();
+
+        // Sin la versión leída no se puede saber si otro usuario editó antes
+        perform(put("/api/articles/" + id), article(id, "Artículo sin versión A", categoryId, null))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void duplicatedStorageIdentifierIsAConflict() throws Exception {
+        long categoryId = createCategory("Conflicto almacenes");
+
+        perform(post("/api/storage/"), storage(null, "DUP-01", categoryId, null)).andExpect(status().isCreated());
+        perform(post("/api/storage/"), storage(null, "DUP-01", categoryId, null)).andExpect(status().isConflict());
+    }
+
+    @Test
+    void tooLongStorageIdentifierIsNotAConflict() throws Exception {
+        long categoryId = createCategory("Longitudes");
+
+        // La columna admite 10 caracteres: es un dato inválido, no un choque con otro registro
+        perform(post("/api/storage/"), storage(null, "IDENTIFICADOR-LARGO", categoryId, null))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void assigningAResponsibleTwiceIsAConflict() throws Exception {
+        long categoryId = createCategory("Responsables");
+        long first = createStorage("RESP-01", categoryId);
+        long second = createStorage("RESP-02", categoryId);
+        long userId = createUser("responsable");
+
+        mockMvc.perform(authorized(post("/api/storage/assign-responsible"))
+                        .param("userId", String.valueOf(userId)).param("storageId", String.valueOf(first)))
+                .andExpect(status().isOk());
+        // Un usuario solo puede ser responsable de un almacén
+        mockMvc.perform(authorized(post("/api/storage/assign-responsible"))
+                        .param("userId", String.valueOf(userId)).param("storageId", String.valueOf(second)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void staleStorageVersionIsAConflict() throws Exception {
+        long categoryId = createCategory("Versión almacenes");
+        JsonNode created = json(perform(post("/api/storage/"), storage(null, "VER-01", categoryId, null))
+                .andExpect(status().isCreated())).path("data");
+        long id = created.path("id").asLong();
+        long readVersion = created.path("version").asLong();
+
+        perform(put("/api/storage/" + id), storage(id, "VER-01A", categoryId, readVersion)).andExpect(status().isOk());
+        perform(put("/api/storage/" + id), storage(id, "VER-01B", categoryId, readVersion)).andExpect(status().isConflict());
+    }
+
+    @Test
+    void duplicatedUserEmailIsAConflict() throws Exception {
+        perform(post("/api/users/"), user(null, "duplicado", "duplicado@sinv.test", null)).andExpect(status().isOk());
+        perform(post("/api/users/"), user(null, "duplicado2", "duplicado@sinv.test", null)).andExpect(status().isConflict());
+    }
+
+    @Test
+    void staleUserVersionIsAConflict() throws Exception {
+        JsonNode created = json(perform(post("/api/users/"), user(null, "versionado", "versionado@sinv.test", null))
+                .andExpect(status().isOk())).path("data");
+        long id = created.path("id").asLong();
+        long readVersion = created.path("version").asLong();
+
+        Map<String, Object> first = user(id, "versionadoA", "versionado@sinv.test", readVersion);
+        perform(put("/api/users/" + id), first).andExpect(status().isOk());
+        Map<String, Object> second = user(id, "versionadoB", "versionado@sinv.test", readVersion);
+        perform(put("/api/users/" + id), second).andExpect(status().isConflict());
+    }
+
+    private long createCategory(String name) throws Exception {
+        return json(perform(post("/api/categories/"), Map.of("name", name, "status", true))
+                .andExpect(status().isCreated())).path("data").path("id").asLong();
+    }
+
+    private long createStorage(String identifier, long categoryId) throws Exception {
+        return json(perform(post("/api/storage/"), storage(null, identifier, categoryId, null))
+                .andExpect(status().isCreated())).path("data").path("id").asLong();
+    }
+
+    private long createUser(String username) throws Exception {
+        return json(perform(post("/api/users/"), user(null, username, username + "@sinv.test", null))
+                .andExpect(status().isOk())).path("data").path("id").asLong();
+    }
+
+    private static Map<String, Object> article(Long id, String name, long categoryId, Long version) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("name", name);
+        body.put("description", "Prueba de conflictos");
+        body.put("categoryId", categoryId);
+        body.put("storageIds", List.of());
+        body.put("status", true);
+        body.put("version", version);
+        return body;
+    }
+
+    private static Map<String, Object> storage(Long id, String identifier, long categoryId, Long version) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("identifier", identifier);
+        body.put("categoryId", categoryId);
+        body.put("status", true);
+        body.put("version", version);
+        return body;
+    }
+
+    private Map<String, Object> user(Long id, String username, String email, Long version) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("username", username);
+        body.put("fullName", "Usuario de prueba");
+        body.put("email", email);
+        if (id == null) body.put("password", "contrasena");
+        body.put("roleId", roleRepository.findByName("TRABAJADOR").orElseThrow().getId());
+        body.put("version", version);
+        return body;
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return mockMvc.perform(authorized(request)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
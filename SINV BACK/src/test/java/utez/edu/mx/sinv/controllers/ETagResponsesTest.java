@@ -0,0 +1,146 @@
+package utez.edu.mx.sinv.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import utez.edu.mx.sinv.models.role.RoleRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Un 304 solo es correcto si nada de lo que incluye la respuesta cambió desde que se calculó el ETag
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ETagResponsesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private String token;
+
+    @BeforeEach
+    void signIn() throws Exception {
+        JsonNode body = json(mockMvc.perform(post("/api/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"20223tn016@utez.edu.mx\",\"password\":\"admin\"}")));
+        token = body.path("data").path("token").asText();
+    }
+
+    @Test
+    void storageListIsNotModifiedUntilAStorageChanges() throws Exception {
+        long categoryId = createCategory("ETag listado");
+        String etag = etagOf("/api/storage/");
+
+        revalidate("/api/storage/", etag).andExpect(status().isNotModified());
+
+        createStorage("ETAG-01", categoryId);
+        revalidate("/api/storage/", etag).andExpect(status().isOk());
+    }
+
+    @Test
+    void changingTheResponsibleInvalidatesTheStorageDetail() throws Exception {
+        long categoryId = createCategory("ETag detalle");
+        long storageId = createStorage("ETAG-02", categoryId);
+        JsonNode first = createUser("etaguno");
+        JsonNode second = createUser("etagdos");
+        editUsername(first, "etaguno2");
+        assign(first.path("id").asLong(), storageId);
+
+        String detail = "/api/storage/" + storageId;
+        String etag = etagOf(detail);
+        revalidate(detail, etag).andExpect(status().isNotModified());
+
+        // El almacén sube una versión y el nuevo responsable tiene una menos: sumadas se compensaban
+        assign(second.path("id").asLong(), storageId);
+        revalidate(detail, etag).andExpect(status().isOk());
+    }
+
+    private String etagOf(String url) throws Exception {
+        return mockMvc.perform(authorized(get(url)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private ResultActions revalidate(String url, String etag) throws Exception {
+        return mockMvc.perform(authorized(get(url)).header(HttpHeaders.IF_NONE_MATCH, etag));
+    }
+
+    private long createCategory(String name) throws Exception {
+        return json(perform(post("/api/categories/"), Map.of("name", name, "status", true))
+                .andExpect(status().isCreated())).path("data").path("id").asLong();
+    }
+
+    private long createStorage(String identifier, long categoryId) throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("identifier", identifier);
+        body.put("categoryId", categoryId);
+        body.put("status", true);
+        return json(perform(post("/api/storage/"), body)
+                .andExpect(status().isCreated())).path("data").path("id").asLong();
+    }
+
+    private JsonNode createUser(String username) throws Exception {
+        return json(perform(post("/api/users/"), user(null, username, username + "@sinv.test", null))
+                .andExpect(status().isOk())).path("data");
+    }
+
+    private void editUsername(JsonNode created, String username) throws Exception {
+        long id = created.path("id").asLong();
+        perform(put("/api/users/" + id), user(id, username, created.path("email").asText(),
+                created.path("version").asLong())).andExpect(status().isOk());
+    }
+
+    private void assign(long userId, long storageId) throws Exception {
+        mockMvc.perform(authorized(post("/api/storage/assign-responsible"))
+                        .param("userId", String.valueOf(userId)).param("storageId", String.valueOf(storageId)))
+                .andExpect(status().isOk());
+    }
+
+    private Map<String, Object> user(Long id, String username, String email, Long version) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("username", username);
+        body.put("fullName", "Usuario de prueba");
+        body.put("email", email);
+        if (id == null) body.put("password", "contrasena");
+        body.put("roleId", roleRepository.findByName("TRABAJADOR").orElseThrow().getId());
+        body.put("version", version);
+        return body;
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return mockMvc.perform(authorized(request)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,59 @@
+package utez.edu.mx.sinv.security.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import utez.edu.mx.sinv.security.service.UserDetailsImplService;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// El cliente solo renueva la sesión con 401; un 403 debe significar falta de permisos
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private UserDetailsImplService userDetailsService;
+
+    @Test
+    void malformedTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/categories/").header(HttpHeaders.AUTHORIZATION, "Bearer no-es-un-jwt"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void expiredTokenIsUnauthorized() throws Exception {
+        long expiration = (long) ReflectionTestUtils.getField(jwtProvider, "expiration");
+        String token;
+        try {
+            ReflectionTestUtils.setField(jwtProvider, "expiration", -60L);
+            token = jwtProvider.generateToken(userDetailsService.loadUserByUsername("20223tn016@utez.edu.mx"), null);
+        } finally {
+            ReflectionTestUtils.setField(jwtProvider, "expiration", expiration);
+        }
+
+        mockMvc.perform(get("/api/categories/").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void validTokenWithoutPermissionIsForbidden() throws Exception {
+        String token = jwtProvider.generateToken(userDetailsService.loadUserByUsername("20203tn049@utez.edu.mx"), null);
+
+        mockMvc.perform(get("/api/dashboard/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+}
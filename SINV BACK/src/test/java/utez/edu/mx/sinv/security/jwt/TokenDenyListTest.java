@@ -0,0 +1,61 @@
+package utez.edu.mx.sinv.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenDenyListTest {
+    private static final String EMAIL = "revocado@sinv.test";
+
+    private TokenDenyList denyList;
+
+    @BeforeEach
+    void setUp() {
+        denyList = new TokenDenyList(null, null, new VerifiedTokenCache());
+        ReflectionTestUtils.setField(denyList, "expiration", 900L);
+    }
+
+    @Test
+    void tokensFromBeforeTheRevocationSecondAreRevoked() {
+        denyList.revoke(EMAIL);
+        long revokedAt = revokedSecond();
+
+        assertTrue(denyList.isRevoked(issuedAt(revokedAt * 1000 - 1)));
+        assertTrue(denyList.isRevoked(issuedAt(revokedAt * 1000 - 60_000)));
+    }
+
+    @Test
+    void tokensFromTheRevocationSecondOnAreValid() {
+        denyList.revoke(EMAIL);
+        long revokedAt = revokedSecond();
+
+        // iat no tiene milisegundos: el login inmediato a la revocación cae en el mismo segundo
+        assertFalse(denyList.isRevoked(issuedAt(revokedAt * 1000)));
+        assertFalse(denyList.isRevoked(issuedAt(revokedAt * 1000 + 999)));
+        assertFalse(denyList.isRevoked(issuedAt(revokedAt * 1000 + 1000)));
+    }
+
+    @Test
+    void otherUsersAreNotAffected() {
+        denyList.revoke(EMAIL);
+
+        Claims claims = Jwts.claims().setSubject("otro@sinv.test").setIssuedAt(new Date(0));
+        assertFalse(denyList.isRevoked(claims));
+    }
+
+    @SuppressWarnings("unchecked")
+    private long revokedSecond() {
+        return ((Map<String, Long>) ReflectionTestUtils.getField(denyList, "revoked")).get(EMAIL);
+    }
+
+    private static Claims issuedAt(long millis) {
+        return Jwts.claims().setSubject(EMAIL).setIssuedAt(new Date(millis));
+    }
+}
@@ -0,0 +1,83 @@
+package utez.edu.mx.sinv.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+import utez.edu.mx.sinv.models.role.RoleRepository;
+import utez.edu.mx.sinv.models.user.Users;
+import utez.edu.mx.sinv.models.user.UsersRepository;
+import utez.edu.mx.sinv.services.auth.AuthService;
+import utez.edu.mx.sinv.services.users.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Solo los intentos fallidos gastan el balde de la cuenta; los aciertos devuelven su ficha
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "security.rate-limit.account.capacity=3")
+class AccountRateLimitTest {
+    private static final String PASSWORD = "correcta";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void failedSignInsLockTheAccountAcrossEmailVariants() {
+        Users user = createUser("bloqueo");
+
+        assertEquals(HttpStatus.BAD_REQUEST, authService.signIn(user.getEmail(), "x").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, authService.signIn(" BLOQUEO@sinv.test", "x").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, authService.signIn("Bloqueo@SINV.test ", "x").getStatusCode());
+
+        // Con el balde vacío se rechaza incluso la contraseña correcta, sin calcular el hash
+        assertThrows(GlobalExceptionHandler.TooManyRequestsException.class,
+                () -> authService.signIn(user.getEmail(), PASSWORD));
+    }
+
+    @Test
+    void successfulSignInsDoNotSpendTheAccountBucket() {
+        Users user = createUser("frecuente");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK, authService.signIn(user.getEmail(), PASSWORD).getStatusCode());
+        }
+        assertEquals(HttpStatus.BAD_REQUEST, authService.signIn(user.getEmail(), "x").getStatusCode());
+    }
+
+    @Test
+    void failedPasswordVerificationsLockTheAccount() {
+        Users user = createUser("verifica");
+
+        assertEquals(true, userService.verifyPassword(user.getId(), PASSWORD).getBody().get("valid"));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(false, userService.verifyPassword(user.getId(), "x").getBody().get("valid"));
+        }
+        assertThrows(GlobalExceptionHandler.TooManyRequestsException.class,
+                () -> userService.verifyPassword(user.getId(), PASSWORD));
+    }
+
+    private Users createUser(String username) {
+        Users user = new Users(username, "Usuario de prueba", username + "@sinv.test",
+                passwordEncoder.encode(PASSWORD), true);
+        user.setRole(roleRepository.findByName("ADMINISTRADOR").orElseThrow());
+        return usersRepository.saveAndFlush(user);
+    }
+}
@@ -0,0 +1,82 @@
+package utez.edu.mx.sinv.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// El límite por IP corta la petición en el filtro, antes del controlador y de la cadena de seguridad
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "security.rate-limit.ip.capacity=2",
+        "security.rate-limit.ip.refill-per-minute=1"
+})
+class LoginRateLimitFilterTest {
+    private static final String BODY = "{\"email\":\"nadie@sinv.test\",\"password\":\"incorrecta\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void signInBeyondTheIpCapacityGets429WithRetryAfter() throws Exception {
+        mockMvc.perform(signIn("10.1.0.1")).andExpect(status().isBadRequest());
+        mockMvc.perform(signIn("10.1.0.1")).andExpect(status().isBadRequest());
+
+        mockMvc.perform(signIn("10.1.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // Otra IP tiene su propio balde
+        mockMvc.perform(signIn("10.1.0.2")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void requestsOutsideTheLimitedOperationsAreNotCounted() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/auth/refresh").with(remote("10.1.0.3"))
+                    .contentType(MediaType.APPLICATION_JSON).content("{\"refreshToken\":\"x\"}"));
+        }
+        mockMvc.perform(signIn("10.1.0.3")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void basicCredentialsAreNotAccepted() throws Exception {
+        // Basic no pasa por el límite de intentos, así que ni la contraseña correcta debe autenticar
+        String credentials = Base64.getEncoder()
+                .encodeToString("20223tn016@utez.edu.mx:admin".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/api/categories/").with(remote("10.1.0.4"))
+                        .header(HttpHeaders.AUTHORIZATION, "Basic " + credentials))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(HttpHeaders.WWW_AUTHENTICATE));
+    }
+
+    private static MockHttpServletRequestBuilder signIn(String ip) {
+        return post("/api/auth/signin").with(remote(ip))
+                .contentType(MediaType.APPLICATION_JSON).content(BODY);
+    }
+
+    private static RequestPostProcessor remote(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package utez.edu.mx.sinv.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+    private static final String ACCOUNT = "usuario@sinv.test";
+
+    private final AtomicLong time = new AtomicLong();
+    private SimpleMeterRegistry registry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new LoginRateLimiter(registry);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "ipCapacity", 2);
+        ReflectionTestUtils.setField(limiter, "ipRefillPerMinute", 1);
+        ReflectionTestUtils.setField(limiter, "accountCapacity", 3);
+        ReflectionTestUtils.setField(limiter, "accountRefillPerMinute", 1);
+        ReflectionTestUtils.setField(limiter, "maxKeys", 100L);
+        ReflectionTestUtils.setField(limiter, "idleMinutes", 30L);
+        limiter.ticker = time::get;
+        limiter.init();
+    }
+
+    @Test
+    void parallelReservationsNeverExceedCapacity() throws InterruptedException {
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            pool.execute(() -> {
+                try {
+                    limiter.reserveAccount(LoginRateLimiter.SIGN_IN, ACCOUNT);
+                    granted.incrementAndGet();
+                } catch (GlobalExceptionHandler.TooManyRequestsException ignored) {
+                    // Rechazado por el límite
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(3, granted.get());
+    }
+
+    @Test
+    void refundedReservationsDoNotLockTheAccount() {
+        for (int i = 0; i < 10; i++) {
+            limiter.reserveAccount(LoginRateLimiter.SIGN_IN, ACCOUNT);
+            limiter.refundAccount(LoginRateLimiter.SIGN_IN, ACCOUNT);
+        }
+        limiter.reserveAccount(LoginRateLimiter.SIGN_IN, ACCOUNT);
+    }
+
+    @Test
+    void accountVariantsShareOneBucket() {
+        limiter.reserveAccount(LoginRateLimiter.SIGN_IN, "Usuario@SINV.test");
+        limiter.reserveAccount(LoginRateLimiter.SIGN_IN, "  usuario@sinv.test ");
+        limiter.reserveAccount(LoginRateLimiter.SIGN_IN, ACCOUNT);
+
+        GlobalExceptionHandler.TooManyRequestsException rejected = assertThrows(
+                GlobalExceptionHandler.TooManyRequestsException.class,
+                () -> limiter.reserveAccount(LoginRateLimiter.SIGN_IN, "USUARIO@sinv.test"));
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+        assertEquals(1.0, registry.counter("sinv.security.ratelimit",
+                "scope", "account", "operation", LoginRateLimiter.SIGN_IN, "result", "rejected").count());
+    }
+
+    @Test
+    void idleBucketsAreEvicted() {
+        limiter.acquireForIp(LoginRateLimiter.SIGN_IN, "10.0.0.1");
+        limiter.acquireForIp(LoginRateLimiter.SIGN_IN, "10.0.0.1");
+        assertThrows(GlobalExceptionHandler.TooManyRequestsException.class,
+                () -> limiter.acquireForIp(LoginRateLimiter.SIGN_IN, "10.0.0.1"));
+        assertEquals(1.0, bucketGauge("ip"));
+
+        time.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        assertEquals(0.0, bucketGauge("ip"));
+
+        // Un balde descartado vuelve a empezar lleno
+        limiter.acquireForIp(LoginRateLimiter.SIGN_IN, "10.0.0.1");
+    }
+
+    private double bucketGauge(String scope) {
+        ReflectionTestUtils.<Cache<?, ?>>getField(limiter, scope + "Buckets").cleanUp();
+        return registry.get("sinv.security.ratelimit.buckets").tag("scope", scope).gauge().value();
+    }
+}
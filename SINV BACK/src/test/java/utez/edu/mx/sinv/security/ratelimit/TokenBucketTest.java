@@ -0,0 +1,75 @@
+package utez.edu.mx.sinv.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND, bucket.tryConsume(0));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(2, SECOND, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(SECOND / 2, bucket.tryConsume(SECOND / 2));
+        assertEquals(0, bucket.tryConsume(SECOND));
+        assertTrue(bucket.tryConsume(SECOND) > 0);
+        // Tras un periodo largo el balde vuelve a la capacidad, no la excede
+        assertEquals(0, bucket.tryConsume(100 * SECOND));
+        assertEquals(0, bucket.tryConsume(100 * SECOND));
+        assertTrue(bucket.tryConsume(100 * SECOND) > 0);
+    }
+
+    @Test
+    void refundReturnsAReservedToken() {
+        TokenBucket bucket = new TokenBucket(1, SECOND, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        bucket.refund(0);
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND, bucket.tryConsume(0));
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(1, SECOND, 0);
+
+        bucket.refund(0);
+        bucket.refund(0);
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND, bucket.tryConsume(0));
+    }
+
+    @Test
+    void concurrentConsumersNeverExceedCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(50, TimeUnit.HOURS.toNanos(1), System.nanoTime());
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(() -> {
+                if (bucket.tryConsume(System.nanoTime()) == 0) granted.incrementAndGet();
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, granted.get());
+    }
+}
@@ -0,0 +1,144 @@
+package utez.edu.mx.sinv.services.articles;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArticleSearchIndexTest {
+
+    private ArticleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ArticleSearchIndex(null);
+        index.index(1L, "Taladro inalámbrico", "Herramienta eléctrica con batería de litio");
+        index.index(2L, "Batería AA", "Paquete de pilas alcalinas");
+        index.index(3L, "Martillo", "Martillo de uña con mango de fibra");
+        index.index(4L, "Cable de red", "Cable UTP categoría 6 para taladro de pruebas");
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        List<ArticleSearchIndex.Hit> hits = index.search("taladro", 10, false);
+        assertEquals(List.of(1L, 4L), ids(hits));
+    }
+
+    @Test
+    void matchesPrefixOfLastTermIgnoringAccents() {
+        assertEquals(List.of(2L, 1L), ids(index.search("bateri", 10, false)));
+        assertEquals(List.of(1L), ids(index.search("inalamb", 10, false)));
+    }
+
+    @Test
+    void matchesTyposOnlyWhenFuzzyIsEnabled() {
+        assertTrue(index.search("martilo", 10, false).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("martilo", 10, true)));
+    }
+
+    @Test
+    void favoursArticlesThatMatchEveryTerm() {
+        assertEquals(4L, index.search("cable taladro", 10, false).get(0).articleId());
+    }
+
+    @Test
+    void reflectsUpdatesAndRemovals() {
+        index.index(3L, "Mazo de goma", "Mazo para carpintería");
+        assertTrue(index.search("martillo", 10, false).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("mazo", 10, false)));
+
+        index.remove(3L);
+        assertTrue(index.search("mazo", 10, false).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void pruningKeepsTheBestHitsOfTheExhaustiveRanking() {
+        assertEquals(ids(index.search("cable de taladro", 10, false)).subList(0, 1),
+                ids(index.search("cable de taladro", 1, false)));
+    }
+
+    @Test
+    void articlesMatchingOnlyALaterTermAreNotDropped() {
+        ArticleSearchIndex large = new ArticleSearchIndex(null);
+        large.index(1L, "Taladro percutor", "Herramienta");
+        for (long id = 2; id <= 30; id++) {
+            large.index(id, "Broca " + id, "Accesorio de corte");
+        }
+
+        // "percutor" deja un solo candidato; las brocas solo coinciden con el segundo término
+        assertEquals(10, large.search("percutor broca", 10, false).size());
+    }
+
+    @Test
+    void pruningMatchesTheExhaustiveRankingForSeveralTerms() {
+        // Vocabulario con frecuencias muy desiguales, para que haya términos raros y comunes en la misma consulta
+        String[] vocabulary = new String[40];
+        for (int v = 0; v < vocabulary.length; v++) {
+            vocabulary[v] = "termino" + (char) ('a' + v % 26) + (char) ('a' + v / 26);
+        }
+        Random random = new Random(42);
+        ArticleSearchIndex large = new ArticleSearchIndex(null);
+        int articles = 600;
+        for (long id = 1; id <= articles; id++) {
+            large.index(id, words(vocabulary, random, 1 + random.nextInt(3)), words(vocabulary, random, 2 + random.nextInt(6)));
+        }
+
+        for (int q = 0; q < 200; q++) {
+            String query = words(vocabulary, random, 2 + random.nextInt(3));
+            // Con un límite del tamaño del índice la poda nunca aplica: es el ranking exhaustivo
+            List<ArticleSearchIndex.Hit> exhaustive = large.search(query, articles, false);
+            for (int limit : new int[]{1, 3, 10, 25}) {
+                List<ArticleSearchIndex.Hit> pruned = large.search(query, limit, false);
+                List<ArticleSearchIndex.Hit> expected = exhaustive.subList(0, Math.min(limit, exhaustive.size()));
+
+                assertEquals(scores(expected), scores(pruned), query + " limit " + limit);
+                // Con empates en el corte puede quedar otro artículo, pero siempre con su puntaje completo
+                assertTrue(exhaustive.containsAll(pruned), query + " limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void ignoresVeryCommonTermsWhenTheQueryHasOthers() {
+        ArticleSearchIndex large = new ArticleSearchIndex(null);
+        for (long id = 1; id <= 2_000; id++) {
+            large.index(id, "Artículo genérico " + id, "Artículo de inventario");
+        }
+        large.index(5_000L, "Artículo taladro", "Taladro percutor");
+
+        assertEquals(List.of(5_000L), ids(large.search("articulo taladro", 10, false)));
+        // Si es el único término de la consulta se sigue buscando
+        assertEquals(10, large.search("articulo", 10, false).size());
+    }
+
+    @Test
+    void reusesOrdinalsOfRemovedArticles() {
+        index.remove(2L);
+        index.index(5L, "Batería recargable", "Pila de litio");
+        assertEquals(List.of(5L, 1L), ids(index.search("bateria", 10, false)));
+        assertEquals(4, index.size());
+    }
+
+    // Índices con distribución logarítmica: los primeros términos del vocabulario son mucho más frecuentes
+    private static String words(String[] vocabulary, Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < count; w++) {
+            int index = (int) Math.floor(Math.exp(random.nextDouble() * Math.log(vocabulary.length))) - 1;
+            text.append(vocabulary[Math.min(vocabulary.length - 1, index)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static List<Double> scores(List<ArticleSearchIndex.Hit> hits) {
+        return hits.stream().map(ArticleSearchIndex.Hit::score).toList();
+    }
+
+    private static List<Long> ids(List<ArticleSearchIndex.Hit> hits) {
+        return hits.stream().map(ArticleSearchIndex.Hit::articleId).toList();
+    }
+}
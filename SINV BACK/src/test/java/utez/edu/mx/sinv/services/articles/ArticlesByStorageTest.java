@@ -0,0 +1,58 @@
+package utez.edu.mx.sinv.services.articles;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import utez.edu.mx.sinv.controllers.articles.dto.ArticleResponseDto;
+import utez.edu.mx.sinv.controllers.articles.dto.ArticlesDto;
+import utez.edu.mx.sinv.controllers.articles.dto.StorageSimpleDto;
+import utez.edu.mx.sinv.controllers.categories.dto.CategoriesDto;
+import utez.edu.mx.sinv.controllers.storage.dto.StorageDto;
+import utez.edu.mx.sinv.models.categories.Categories;
+import utez.edu.mx.sinv.models.storage.Storage;
+import utez.edu.mx.sinv.services.categories.CategoriesService;
+import utez.edu.mx.sinv.services.storage.StorageService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// La respuesta por almacén sale de proyecciones, pero conserva la forma de la respuesta armada desde la entidad
+@SpringBootTest
+@ActiveProfiles("test")
+class ArticlesByStorageTest {
+
+    @Autowired
+    private ArticlesService articlesService;
+
+    @Autowired
+    private CategoriesService categoriesService;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void includesEveryStorageAndTheVersionOfEachArticle() {
+        Categories category = (Categories) categoriesService.save(new CategoriesDto(null, "Por almacén", true, null))
+                .getBody().getData();
+        Storage first = (Storage) storageService.save(new StorageDto(null, "ALM-01", category.getId(), null, true, null))
+                .getBody().getData();
+        Storage second = (Storage) storageService.save(new StorageDto(null, "ALM-02", category.getId(), null, true, null))
+                .getBody().getData();
+        articlesService.save(new ArticlesDto(null, "Artículo compartido", "En dos almacenes", category.getId(),
+                Set.of(first.getId(), second.getId()), true, null));
+
+        List<ArticleResponseDto> articles = (List<ArticleResponseDto>) articlesService.findByStorage(first.getId())
+                .getBody().getData();
+
+        assertEquals(1, articles.size());
+        assertNotNull(articles.get(0).getVersion());
+        assertEquals(Set.of("ALM-01", "ALM-02"), articles.get(0).getStorages().stream()
+                .map(StorageSimpleDto::getIdentifier).collect(Collectors.toSet()));
+    }
+}
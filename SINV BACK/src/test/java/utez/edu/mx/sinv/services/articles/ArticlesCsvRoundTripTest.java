@@ -0,0 +1,78 @@
+package utez.edu.mx.sinv.services.articles;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import utez.edu.mx.sinv.controllers.articles.dto.ArticleResponseDto;
+import utez.edu.mx.sinv.controllers.articles.dto.ArticlesDto;
+import utez.edu.mx.sinv.controllers.categories.dto.CategoriesDto;
+import utez.edu.mx.sinv.controllers.storage.dto.StorageDto;
+import utez.edu.mx.sinv.models.articles.ArticleStorageRow;
+import utez.edu.mx.sinv.models.articles.ArticleSummary;
+import utez.edu.mx.sinv.models.articles.Articles;
+import utez.edu.mx.sinv.models.articles.ArticlesRepository;
+import utez.edu.mx.sinv.models.categories.Categories;
+import utez.edu.mx.sinv.models.storage.Storage;
+import utez.edu.mx.sinv.services.categories.CategoriesService;
+import utez.edu.mx.sinv.services.storage.StorageService;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Lo que produce la exportación CSV debe poder volver a importarse sin perder saltos de línea ni comillas
+@SpringBootTest
+@ActiveProfiles("test")
+class ArticlesCsvRoundTripTest {
+    private static final String NAME = "Artículo ida y vuelta";
+    private static final String DESCRIPTION = "Primera línea\nSegunda línea, con \"comillas\"\r\nTercera";
+
+    @Autowired
+    private ArticlesService articlesService;
+
+    @Autowired
+    private ArticlesExportService exportService;
+
+    @Autowired
+    private ArticlesImportService importService;
+
+    @Autowired
+    private ArticlesRepository repository;
+
+    @Autowired
+    private CategoriesService categoriesService;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Test
+    void exportedCsvImportsBack() {
+        Categories category = (Categories) categoriesService.save(new CategoriesDto(null, "Ida y vuelta", true, null))
+                .getBody().getData();
+        Storage storage = (Storage) storageService.save(new StorageDto(null, "CSV-01", category.getId(), null, true, null))
+                .getBody().getData();
+        ArticleResponseDto created = (ArticleResponseDto) articlesService.save(new ArticlesDto(null, NAME, DESCRIPTION,
+                category.getId(), Set.of(storage.getId()), false, null)).getBody().getData();
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        exportService.writeCsv(exported);
+        articlesService.delete(created.getId());
+
+        importService.importCsv(new MockMultipartFile("file", "articles.csv", "text/csv", exported.toByteArray()));
+
+        Long id = repository.findAll().stream()
+                .filter(article -> NAME.equals(article.getName()))
+                .map(Articles::getId)
+                .findFirst().orElseThrow();
+        ArticleSummary summary = repository.findSummariesByIds(List.of(id)).get(0);
+        assertEquals(DESCRIPTION, summary.description());
+        assertEquals(false, summary.status());
+        assertEquals(category.getId(), summary.categoryId());
+        assertEquals(List.of(storage.getId()), repository.findStorageRowsByArticleIds(List.of(id)).stream()
+                .map(ArticleStorageRow::storageId).toList());
+    }
+}
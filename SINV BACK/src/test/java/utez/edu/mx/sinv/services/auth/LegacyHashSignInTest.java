@@ -0,0 +1,54 @@
+package utez.edu.mx.sinv.services.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import utez.edu.mx.sinv.models.role.RoleRepository;
+import utez.edu.mx.sinv.models.user.Users;
+import utez.edu.mx.sinv.models.user.UsersRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// El primer login con un hash heredado lo reescribe; ni ese login ni el siguiente deben fallar
+@SpringBootTest
+@ActiveProfiles("test")
+class LegacyHashSignInTest {
+    private static final String PASSWORD = "legacy-password";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Test
+    void lowCostLegacyHashIsUpgradedOnSignIn() {
+        assertUpgradedAcrossTwoSignIns("legacy4", new BCryptPasswordEncoder(4).encode(PASSWORD));
+    }
+
+    @Test
+    void unprefixedCost10HashIsUpgradedOnSignIn() {
+        assertUpgradedAcrossTwoSignIns("legacy10", new BCryptPasswordEncoder(10).encode(PASSWORD));
+    }
+
+    private void assertUpgradedAcrossTwoSignIns(String username, String legacyHash) {
+        String email = username + "@sinv.test";
+        Users user = new Users(username, "Usuario heredado", email, legacyHash, true);
+        user.setRole(roleRepository.findByName("ADMINISTRADOR").orElseThrow());
+        usersRepository.saveAndFlush(user);
+
+        assertEquals(HttpStatus.OK, authService.signIn(email, PASSWORD).getStatusCode());
+        String upgraded = usersRepository.findByEmail(email).orElseThrow().getPassword();
+        assertTrue(upgraded.startsWith("{bcrypt}"));
+
+        assertEquals(HttpStatus.OK, authService.signIn(email, PASSWORD).getStatusCode());
+        assertEquals(upgraded, usersRepository.findByEmail(email).orElseThrow().getPassword());
+    }
+}
@@ -0,0 +1,100 @@
+package utez.edu.mx.sinv.services.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.controllers.auth.dto.SignedDto;
+import utez.edu.mx.sinv.security.jwt.JwtProvider;
+import utez.edu.mx.sinv.security.jwt.TokenDenyList;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenFlowTest {
+    private static final String ADMIN_EMAIL = "20223tn016@utez.edu.mx";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private TokenDenyList denyList;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void refreshRotatesTheToken() {
+        SignedDto signed = signIn();
+
+        SignedDto refreshed = (SignedDto) authService.refresh(signed.getRefreshToken()).getBody().getData();
+
+        assertNotEquals(signed.getRefreshToken(), refreshed.getRefreshToken());
+        assertEquals(sessionOf(signed.getToken()), sessionOf(refreshed.getToken()));
+        assertFalse(denyList.isRevoked(jwtProvider.resolveClaims(refreshed.getToken())));
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheSession() {
+        SignedDto signed = signIn();
+        SignedDto refreshed = (SignedDto) authService.refresh(signed.getRefreshToken()).getBody().getData();
+        rotatedSecondsAgo(signed.getRefreshToken(), 60);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, authService.refresh(signed.getRefreshToken()).getStatusCode());
+        // El token legítimo más reciente también queda inválido, igual que los access tokens de la sesión
+        assertEquals(HttpStatus.UNAUTHORIZED, authService.refresh(refreshed.getRefreshToken()).getStatusCode());
+        assertTrue(denyList.isRevoked(jwtProvider.resolveClaims(refreshed.getToken())));
+    }
+
+    @Test
+    void tokenRotatedMomentsAgoIsRejectedWithoutRevokingTheSession() {
+        SignedDto signed = signIn();
+        SignedDto refreshed = (SignedDto) authService.refresh(signed.getRefreshToken()).getBody().getData();
+
+        // Otra pestaña renovó con el mismo token al mismo tiempo: pierde, pero la sesión sigue viva
+        assertEquals(HttpStatus.UNAUTHORIZED, authService.refresh(signed.getRefreshToken()).getStatusCode());
+        assertFalse(denyList.isRevoked(jwtProvider.resolveClaims(refreshed.getToken())));
+        assertEquals(HttpStatus.OK, authService.refresh(refreshed.getRefreshToken()).getStatusCode());
+    }
+
+    @Test
+    void logoutRevokesAccessAndRefreshTokens() {
+        SignedDto signed = signIn();
+
+        authService.logout(signed.getToken(), null);
+
+        assertTrue(denyList.isRevoked(jwtProvider.resolveClaims(signed.getToken())));
+        assertEquals(HttpStatus.UNAUTHORIZED, authService.refresh(signed.getRefreshToken()).getStatusCode());
+    }
+
+    @Test
+    void unknownRefreshTokenIsRejected() {
+        assertEquals(HttpStatus.UNAUTHORIZED, authService.refresh("not-a-token").getStatusCode());
+    }
+
+    private SignedDto signIn() {
+        ResponseEntity<ApiResponse> response = authService.signIn(ADMIN_EMAIL, "admin");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return (SignedDto) response.getBody().getData();
+    }
+
+    // Simula un reuso fuera de la ventana de gracia
+    private void rotatedSecondsAgo(String refreshToken, int seconds) {
+        jdbcTemplate.update("UPDATE refresh_token SET rotated_at = ? WHERE token_hash = ?",
+                new Timestamp(System.currentTimeMillis() - seconds * 1000L), RefreshTokenService.hash(refreshToken));
+    }
+
+    private String sessionOf(String token) {
+        return jwtProvider.resolveSessionId(jwtProvider.resolveClaims(token));
+    }
+}
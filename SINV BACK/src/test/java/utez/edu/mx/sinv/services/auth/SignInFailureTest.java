@@ -0,0 +1,65 @@
+package utez.edu.mx.sinv.services.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.test.util.ReflectionTestUtils;
+import utez.edu.mx.sinv.security.ratelimit.LoginRateLimiter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Solo un rechazo de credenciales responde CredentialMismatch; las demás fallas se propagan (500)
+class SignInFailureTest {
+    private static final String EMAIL = "usuario@sinv.test";
+
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginRateLimiter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        // Una sola ficha: si una falla interna la gastara, el siguiente intento respondería 429
+        ReflectionTestUtils.setField(limiter, "accountCapacity", 1);
+        ReflectionTestUtils.setField(limiter, "accountRefillPerMinute", 1);
+        ReflectionTestUtils.setField(limiter, "maxKeys", 100L);
+        ReflectionTestUtils.setField(limiter, "idleMinutes", 30L);
+        ReflectionTestUtils.invokeMethod(limiter, "init");
+    }
+
+    @Test
+    void wrongCredentialsAreAMismatch() {
+        AuthService service = service(auth -> {
+            throw new BadCredentialsException("CredentialMismatch");
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, service.signIn(EMAIL, "incorrecta").getStatusCode());
+    }
+
+    @Test
+    void databaseFailuresAreNotReportedAsCredentials() {
+        AuthService service = service(auth -> {
+            throw new DataAccessResourceFailureException("Connection refused");
+        });
+
+        assertThrows(DataAccessResourceFailureException.class, () -> service.signIn(EMAIL, "admin"));
+        assertThrows(DataAccessResourceFailureException.class, () -> service.signIn(EMAIL, "admin"));
+    }
+
+    @Test
+    void internalAuthenticationErrorsPropagate() {
+        AuthService service = service(auth -> {
+            throw new InternalAuthenticationServiceException("UserDetailsService failed");
+        });
+
+        assertThrows(InternalAuthenticationServiceException.class, () -> service.signIn(EMAIL, "admin"));
+    }
+
+    private AuthService service(AuthenticationManager manager) {
+        return new AuthService(manager, null, null, limiter);
+    }
+}
@@ -0,0 +1,55 @@
+package utez.edu.mx.sinv.services.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.metrics.QueryCountInspector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// El login debe resolver usuario, rol y almacén con una sola sentencia SQL;
+// la única otra sentencia es el alta del refresh token de la sesión
+@SpringBootTest
+@ActiveProfiles("test")
+class SignInQueryCountTest {
+    private static final String ADMIN_EMAIL = "20223tn016@utez.edu.mx";
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void signInRunsOneQueryPlusTheRefreshTokenInsert() {
+        // La primera vez puede reescribir un hash heredado; se mide el caso normal
+        authService.signIn(ADMIN_EMAIL, "admin");
+
+        QueryCountInspector.start();
+        ResponseEntity<ApiResponse> response = authService.signIn(ADMIN_EMAIL, "admin");
+        int statements = QueryCountInspector.stop();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void rejectedSignInRunsASingleStatement() {
+        QueryCountInspector.start();
+        ResponseEntity<ApiResponse> wrongPassword = authService.signIn(ADMIN_EMAIL, "not-the-password");
+        int statements = QueryCountInspector.stop();
+
+        assertEquals(HttpStatus.BAD_REQUEST, wrongPassword.getStatusCode());
+        assertEquals(1, statements);
+
+        QueryCountInspector.start();
+        ResponseEntity<ApiResponse> unknown = authService.signIn("nobody@sinv.test", "admin");
+        statements = QueryCountInspector.stop();
+
+        // Un correo inexistente es indistinguible de una contraseña incorrecta
+        assertEquals(HttpStatus.BAD_REQUEST, unknown.getStatusCode());
+        assertEquals(wrongPassword.getBody().getMessage(), unknown.getBody().getMessage());
+        assertEquals(1, statements);
+    }
+}
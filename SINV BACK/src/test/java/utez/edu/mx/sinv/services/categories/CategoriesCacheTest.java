@@ -0,0 +1,49 @@
+package utez.edu.mx.sinv.services.categories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import utez.edu.mx.sinv.controllers.categories.dto.CategoriesDto;
+import utez.edu.mx.sinv.models.categories.Categories;
+import utez.edu.mx.sinv.models.categories.CategoriesRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// El cache de segundo nivel guarda el estado, no las entidades: cada lectura recibe su propia instancia
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoriesCacheTest {
+
+    @Autowired
+    private CategoriesService service;
+
+    @Autowired
+    private CategoriesRepository repository;
+
+    @Test
+    void cachedReadsDoNotShareInstances() {
+        Categories created = (Categories) service.save(new CategoriesDto(null, "Cache instancias", true, null))
+                .getBody().getData();
+
+        Categories first = repository.findById(created.getId()).orElseThrow();
+        Categories second = repository.findById(created.getId()).orElseThrow();
+        assertNotSame(first, second);
+
+        // Modificar una copia fuera de una transacción no altera lo que leen los demás
+        first.setName("Cambio sin guardar");
+        assertEquals("Cache instancias", repository.findById(created.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void cachedListsSeeCommittedChanges() {
+        Categories created = (Categories) service.save(new CategoriesDto(null, "Cache listado", true, null))
+                .getBody().getData();
+        assertTrue(repository.findAllActive().stream().anyMatch(c -> c.getId().equals(created.getId())));
+
+        service.update(new CategoriesDto(created.getId(), "Cache listado", false, created.getVersion()));
+
+        assertTrue(repository.findAllActive().stream().noneMatch(c -> c.getId().equals(created.getId())));
+        assertFalse(repository.findById(created.getId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,47 @@
+package utez.edu.mx.sinv.services.categories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import utez.edu.mx.sinv.config.ApiResponse;
+import utez.edu.mx.sinv.controllers.categories.dto.CategoriesDto;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+import utez.edu.mx.sinv.models.categories.Categories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Sin consultas previas: el duplicado y la versión vieja los detecta la base de datos y terminan en 409
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoriesConflictTest {
+
+    @Autowired
+    private CategoriesService service;
+
+    @Test
+    void duplicatedNameIsAConflict() {
+        assertEquals(HttpStatus.CREATED, service.save(new CategoriesDto(null, "Conflicto duplicado", true, null)).getStatusCode());
+
+        assertThrows(GlobalExceptionHandler.ConflictException.class,
+                () -> service.save(new CategoriesDto(null, "Conflicto duplicado", true, null)));
+    }
+
+    @Test
+    void staleVersionIsAConflict() {
+        Categories created = (Categories) service.save(new CategoriesDto(null, "Conflicto versión", true, null))
+                .getBody().getData();
+        Long readVersion = created.getVersion();
+
+        ResponseEntity<ApiResponse> first = service.update(
+                new CategoriesDto(created.getId(), "Conflicto versión A", true, readVersion));
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+
+        // El segundo administrador editó a partir de la misma versión
+        assertThrows(GlobalExceptionHandler.ConflictException.class, () -> service.update(
+                new CategoriesDto(created.getId(), "Conflicto versión B", true, readVersion)));
+    }
+}
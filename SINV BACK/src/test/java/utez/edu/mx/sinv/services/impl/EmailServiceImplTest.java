@@ -0,0 +1,121 @@
+package utez.edu.mx.sinv.services.impl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Provider;
+import jakarta.mail.Session;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.smtp.SMTPTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import utez.edu.mx.sinv.services.mail.SmtpTransportPool;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailServiceImplTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private JavaMailSenderImpl sender;
+    private SmtpTransportPool pool;
+    private EmailServiceImpl emailService;
+
+    @BeforeEach
+    void setUp() {
+        // El transporte SMTP se reemplaza por uno que cuenta las conexiones abiertas contra el servidor
+        Session session = Session.getInstance(new Properties());
+        session.setProvider(new Provider(Provider.Type.TRANSPORT, "smtp",
+                CountingTransport.class.getName(), "SINV", "test"));
+        CountingTransport.connections.set(0);
+
+        sender = new JavaMailSenderImpl();
+        sender.setSession(session);
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        pool = new SmtpTransportPool(sender, 2, 1000, 60000, 100);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        TemplateEngine templateEngine = new TemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        emailService = new EmailServiceImpl(pool, templateEngine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void sendsPasswordResetEmailWithToken() throws Exception {
+        emailService.sendPasswordResetEmail("user@sinv.test", "ABC123XYZ0");
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("user@sinv.test", received[0].getAllRecipients()[0].toString());
+        assertTrue(GreenMailUtil.getBody(received[0]).contains("ABC123XYZ0"));
+    }
+
+    @Test
+    void sendsBatchOverPooledConnection() {
+        List<MimeMessage> messages = List.of(
+                emailService.preparePasswordResetEmail("a@sinv.test", "TOKEN00001"),
+                emailService.preparePasswordResetEmail("b@sinv.test", "TOKEN00002"),
+                emailService.preparePasswordResetEmail("c@sinv.test", "TOKEN00003"));
+
+        assertTrue(pool.sendAll(messages).isEmpty());
+        // La conexión se devuelve al pool y se reutiliza en el siguiente envío
+        emailService.sendPasswordResetEmail("d@sinv.test", "TOKEN00004");
+
+        assertEquals(4, greenMail.getReceivedMessages().length);
+        assertEquals(1, CountingTransport.connections.get());
+    }
+
+    @Test
+    void reconnectsAfterTheMessageLimitPerConnection() {
+        SmtpTransportPool limited = new SmtpTransportPool(sender, 1, 1000, 60000, 2);
+        try {
+            List<MimeMessage> messages = List.of(
+                    emailService.preparePasswordResetEmail("a@sinv.test", "TOKEN00001"),
+                    emailService.preparePasswordResetEmail("b@sinv.test", "TOKEN00002"),
+                    emailService.preparePasswordResetEmail("c@sinv.test", "TOKEN00003"));
+
+            assertTrue(limited.sendAll(messages).isEmpty());
+            assertEquals(3, greenMail.getReceivedMessages().length);
+            assertEquals(2, CountingTransport.connections.get());
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    public static class CountingTransport extends SMTPTransport {
+        static final AtomicInteger connections = new AtomicInteger();
+
+        public CountingTransport(Session session, URLName urlName) {
+            super(session, urlName);
+        }
+
+        @Override
+        protected synchronized boolean protocolConnect(String host, int port, String user, String password)
+                throws MessagingException {
+            connections.incrementAndGet();
+            return super.protocolConnect(host, port, user, password);
+        }
+    }
+}
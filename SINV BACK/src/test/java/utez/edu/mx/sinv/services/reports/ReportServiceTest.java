@@ -0,0 +1,54 @@
+package utez.edu.mx.sinv.services.reports;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Un solo reporte a la vez: el segundo se rechaza de inmediato y el permiso vuelve exactamente una vez
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "reports.max-concurrent=1")
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService service;
+
+    @Test
+    void rejectsImmediatelyWhileAReportIsPending() {
+        ReportService.RenderedReport pending = service.renderInventory("storage", "pdf");
+        try {
+            assertThrows(GlobalExceptionHandler.ServiceUnavailableException.class,
+                    () -> service.renderInventory("category", "pdf"));
+        } finally {
+            // Lo que hace el callback de fin de la petición cuando el cuerpo nunca se escribe
+            pending.release();
+        }
+        service.renderInventory("category", "pdf").release();
+    }
+
+    @Test
+    void writingAndCompletingReleaseThePermitOnce() throws Exception {
+        ReportService.RenderedReport report = service.renderInventory("storage", "pdf");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.writeTo(out);
+        report.release();
+        assertTrue(new String(out.toByteArray(), 0, 4, StandardCharsets.ISO_8859_1).startsWith("%PDF"));
+
+        ReportService.RenderedReport next = service.renderInventory("storage", "pdf");
+        try {
+            assertThrows(GlobalExceptionHandler.ServiceUnavailableException.class,
+                    () -> service.renderInventory("storage", "pdf"));
+        } finally {
+            next.release();
+        }
+    }
+}
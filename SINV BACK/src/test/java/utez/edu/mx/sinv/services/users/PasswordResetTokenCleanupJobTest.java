@@ -0,0 +1,57 @@
+package utez.edu.mx.sinv.services.users;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import utez.edu.mx.sinv.models.passwordreset.PasswordResetToken;
+import utez.edu.mx.sinv.models.passwordreset.PasswordResetTokenRepository;
+import utez.edu.mx.sinv.models.user.Users;
+import utez.edu.mx.sinv.models.user.UsersRepository;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PasswordResetTokenCleanupJobTest {
+
+    @Autowired
+    private PasswordResetTokenCleanupJob job;
+
+    @Autowired
+    private PasswordResetTokenRepository tokenRepository;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void eachRunRecordsDeletedRowsAndDuration() {
+        Users user = usersRepository.findByEmail("20223tn016@utez.edu.mx").orElseThrow();
+        for (int i = 0; i < 3; i++) {
+            PasswordResetToken token = new PasswordResetToken();
+            token.setToken("cleanup-" + i);
+            token.setUser(user);
+            token.setExpiryDate(new Date(System.currentTimeMillis() - 60_000));
+            tokenRepository.save(token);
+        }
+        double deletedBefore = registry.counter("sinv.password-reset.cleanup.deleted").count();
+        long runsBefore = timer().count();
+
+        job.run();
+
+        // Otras pruebas pueden haber dejado tokens vencidos
+        assertTrue(registry.counter("sinv.password-reset.cleanup.deleted").count() - deletedBefore >= 3);
+        assertEquals(1, timer().count() - runsBefore);
+    }
+
+    private Timer timer() {
+        return registry.timer("sinv.password-reset.cleanup", "result", "ok");
+    }
+}
@@ -0,0 +1,65 @@
+package utez.edu.mx.sinv.utils;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import utez.edu.mx.sinv.exception.GlobalExceptionHandler;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictUtilsTest {
+    private static final Map<String, String> MESSAGES = Map.of(
+            "uk_storages_identifier", "identifier taken",
+            "uk_storages_responsible", "responsible taken");
+
+    @Test
+    void duplicateKeyPicksTheMessageOfTheViolatedConstraint() {
+        // MySQL: código 1062 con el nombre calificado por la tabla
+        GlobalExceptionHandler.ConflictException mysql = assertThrows(GlobalExceptionHandler.ConflictException.class,
+                () -> ConflictUtils.saveUnique(failing("23000", 1062, "storages.uk_storages_responsible"), MESSAGES));
+        assertEquals("responsible taken", mysql.getMessage());
+
+        // H2: estado 23505 y el índice que respalda la restricción
+        GlobalExceptionHandler.ConflictException h2 = assertThrows(GlobalExceptionHandler.ConflictException.class,
+                () -> ConflictUtils.saveUnique(failing("23505", 23505,
+                        "PUBLIC.UK_STORAGES_IDENTIFIER_INDEX_A ON PUBLIC.STORAGES(IDENTIFIER)"), MESSAGES));
+        assertEquals("identifier taken", h2.getMessage());
+    }
+
+    @Test
+    void unknownDuplicateKeyStillIsAConflict() {
+        GlobalExceptionHandler.ConflictException e = assertThrows(GlobalExceptionHandler.ConflictException.class,
+                () -> ConflictUtils.saveUnique(failing("23000", 1062, "storages.UK6dotkott2kjsp8vw4d0m25fb7"), MESSAGES));
+        assertEquals(ConflictUtils.DUPLICATED_RECORD, e.getMessage());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotConflicts() {
+        // Foránea inexistente (1452), nulo (1048) y valor demasiado largo (22001)
+        assertThrows(DataIntegrityViolationException.class,
+                () -> ConflictUtils.saveUnique(failing("23000", 1452, "fk_storages_category"), "taken"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> ConflictUtils.saveUnique(failing("23000", 1048, null), MESSAGES));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> ConflictUtils.saveUnique(failing("22001", 22001, null), "taken"));
+    }
+
+    @Test
+    void updatesMustSendTheReadVersion() {
+        assertThrows(IllegalArgumentException.class, () -> ConflictUtils.checkVersion(null, 3L));
+        assertThrows(GlobalExceptionHandler.ConflictException.class, () -> ConflictUtils.checkVersion(2L, 3L));
+        assertDoesNotThrow(() -> ConflictUtils.checkVersion(3L, 3L));
+    }
+
+    private static Supplier<Object> failing(String sqlState, int errorCode, String constraint) {
+        SQLException sql = new SQLException("integrity violation", sqlState, errorCode);
+        return () -> {
+            throw new DataIntegrityViolationException("could not execute statement",
+                    new ConstraintViolationException("could not execute statement", sql, constraint));
+        };
+    }
+}
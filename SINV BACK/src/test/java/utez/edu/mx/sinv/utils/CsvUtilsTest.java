@@ -0,0 +1,53 @@
+package utez.edu.mx.sinv.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvUtilsTest {
+
+    @Test
+    void escapedRecordsReadBackUnchanged() throws IOException {
+        List<List<String>> records = List.of(
+                List.of("1", "Línea 1\nLínea 2, con \"comillas\"", "", "true"),
+                List.of("2", "Fin de línea de Windows\r\nsegunda", "a;b", "false"),
+                List.of("3", "sin comillas", "", ""));
+        String csv = records.stream()
+                .map(fields -> fields.stream().map(CsvUtils::escape).collect(Collectors.joining(",")))
+                .collect(Collectors.joining("\r\n", "", "\r\n"));
+
+        CsvUtils.RecordReader reader = new CsvUtils.RecordReader(new StringReader(csv));
+        List<List<String>> read = new ArrayList<>();
+        List<Integer> lines = new ArrayList<>();
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            read.add(fields);
+            lines.add(reader.recordLine());
+        }
+
+        assertEquals(records, read);
+        // Cada registro reporta la línea del archivo donde empieza
+        assertEquals(List.of(1, 3, 5), lines);
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        CsvUtils.RecordReader reader = new CsvUtils.RecordReader(new StringReader("a,b\nc,\"d\n"));
+        assertEquals(List.of("a", "b"), reader.next());
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals(2, reader.recordLine());
+    }
+
+    @Test
+    void lastRecordDoesNotNeedALineBreak() throws IOException {
+        CsvUtils.RecordReader reader = new CsvUtils.RecordReader(new StringReader("a,\"b\""));
+        assertEquals(List.of("a", "b"), reader.next());
+        assertNull(reader.next());
+    }
+}
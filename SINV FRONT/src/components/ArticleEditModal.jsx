@@ -11,7 +11,8 @@ const ArticleEditModal = ({ isOpen, onClose, onArticleUpdated, articleData, exis
         description: '',
         status: true,
         categoryId: '',
-        storageIds: []
+        storageIds: [],
+        version: null
     });
     const [errors, setErrors] = useState({});
     const [loading, setLoading] = useState(false);
@@ -36,7 +37,8 @@ const ArticleEditModal = ({ isOpen, onClose, onArticleUpdated, articleData, exis
                 description: articleData.description,
                 status: articleData.status,
                 categoryId: articleData.category?.id || '',
-                storageIds: articleData.storages ? articleData.storages.map(s => s.id) : []
+                storageIds: articleData.storages ? articleData.storages.map(s => s.id) : [],
+                version: articleData.version
             });
             setInitialLoad(false);
         }
@@ -165,6 +167,10 @@ const ArticleEditModal = ({ isOpen, onClose, onArticleUpdated, articleData, exis
             let errorMessage = 'Error al actualizar el artículo';
             if (error.response) {
                 errorMessage = error.response.data?.message || errorMessage;
+                // Conflicto: dato único repetido o versión desactualizada
+                if (error.response.status === 409) {
+                    errorMessage = 'Ya existe un artículo con ese nombre, o alguien más modificó este artículo';
+                }
             }
             
             Swal.fire({
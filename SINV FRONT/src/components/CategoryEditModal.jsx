@@ -14,7 +14,8 @@ const CategoryEditModal = ({
     const [formData, setFormData] = useState({
         id: '',
         name: '',
-        status: true
+        status: true,
+        version: null
     });
     const [errors, setErrors] = useState({});
 
@@ -23,7 +24,8 @@ const CategoryEditModal = ({
             setFormData({
                 id: categoryData.id,
                 name: categoryData.name,
-                status: categoryData.status
+                status: categoryData.status,
+                version: categoryData.version
             });
         }
     }, [isOpen, categoryData]);
@@ -76,7 +78,9 @@ const CategoryEditModal = ({
             console.error("Error updating category:", error);
             let errorMessage = 'Error al actualizar la categoría';
             
-            if (error.response?.data?.message) {
+            if (error.response?.status === 409) {
+                errorMessage = 'Ya existe una categoría con ese nombre, o alguien más modificó esta categoría';
+            } else if (error.response?.data?.message) {
                 errorMessage = error.response.data.message;
             } else if (error.message) {
                 errorMessage = error.message;
@@ -103,7 +107,8 @@ const CategoryEditModal = ({
         setFormData({
             id: '',
             name: '',
-            status: true
+            status: true,
+            version: null
         });
         setErrors({});
         onClose();
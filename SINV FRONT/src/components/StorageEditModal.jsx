@@ -19,7 +19,8 @@ const StorageEditModal = ({
         identifier: '',
         categoryId: '',
         responsibleId: '',
-        status: true
+        status: true,
+        version: null
     });
     const [errors, setErrors] = useState({});
 
@@ -33,7 +34,8 @@ const StorageEditModal = ({
                 identifier: storageData.identifier,
                 categoryId: storageData.category?.id || '',
                 responsibleId: storageData.responsible?.id || '',
-                status: storageData.status
+                status: storageData.status,
+                version: storageData.version
             });
         }
     }, [isOpen, storageData]);
@@ -118,7 +120,8 @@ const StorageEditModal = ({
                 identifier: formData.identifier,
                 categoryId: parseInt(formData.categoryId),
                 responsibleId: formData.responsibleId ? parseInt(formData.responsibleId) : null,
-                status: formData.status
+                status: formData.status,
+                version: formData.version
             };
 
             const response = await AxiosClient.put(`/storage/${formData.id}`, payload);
@@ -154,7 +157,9 @@ const StorageEditModal = ({
             console.error("Error updating storage:", error);
             let errorMessage = 'Error al actualizar el almacén';
             
-            if (error.response?.data?.message) {
+            if (error.response?.status === 409) {
+                errorMessage = 'El identificador o el responsable ya están asignados, o alguien más modificó este almacén';
+            } else if (error.response?.data?.message) {
                 errorMessage = error.response.data.message;
             } else if (error.message) {
                 errorMessage = error.message;
@@ -183,7 +188,8 @@ const StorageEditModal = ({
             identifier: '',
             categoryId: '',
             responsibleId: '',
-            status: true
+            status: true,
+            version: null
         });
         setErrors({});
         onClose();
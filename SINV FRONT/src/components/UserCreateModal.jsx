@@ -119,6 +119,10 @@ const UserCreateModal = ({ isOpen, onClose, onUserCreated }) => {
                 if (error.response.status === 400 && errorMessage.includes('correo')) {
                     errorMessage = 'El correo electrónico ya está registrado';
                 }
+                // Conflicto: dato único repetido o versión desactualizada
+                if (error.response.status === 409) {
+                    errorMessage = 'El correo electrónico o el nombre de usuario ya está registrado';
+                }
             }
             
             Swal.fire({
@@ -13,7 +13,8 @@ const UserEditModal = ({ isOpen, onClose, onUserUpdated, userData }) => {
         email: '',
         password: '',
         confirmPassword: '',
-        status: true
+        status: true,
+        version: null
     });
     const [errors, setErrors] = useState({});
     const [showPasswordFields, setShowPasswordFields] = useState(false);
@@ -28,7 +29,8 @@ const UserEditModal = ({ isOpen, onClose, onUserUpdated, userData }) => {
                 email: userData.email,
                 password: '',
                 confirmPassword: '',
-                status: userData.status
+                status: userData.status,
+                version: userData.version
             });
             setInitialLoad(false);
         }
@@ -91,7 +93,9 @@ const UserEditModal = ({ isOpen, onClose, onUserUpdated, userData }) => {
                 fullName: formData.fullName,
                 email: formData.email,
                 password: showPasswordFields ? formData.password : undefined,
-                status: formData.status
+                status: formData.status,
+                // Versión leída: si otro administrador guardó antes, el servidor responde 409
+                version: formData.version
             };
 
             const response = await AxiosClient({
@@ -124,6 +128,10 @@ const UserEditModal = ({ isOpen, onClose, onUserUpdated, userData }) => {
                 if (error.response.status === 400 && errorMessage.includes('correo')) {
                     errorMessage = 'El correo electrónico ya está registrado';
                 }
+                // Conflicto: dato único repetido o versión desactualizada
+                if (error.response.status === 409) {
+                    errorMessage = 'El correo o el nombre de usuario ya está registrado, o alguien más modificó este usuario';
+                }
             }
             
             Swal.fire({
@@ -147,7 +155,8 @@ const UserEditModal = ({ isOpen, onClose, onUserUpdated, userData }) => {
             email: '',
             password: '',
             confirmPassword: '',
-            status: true
+            status: true,
+            version: null
         });
         setErrors({});
         setShowPasswordFields(false);
@@ -25,8 +25,81 @@ AxiosClient.interceptors.request.use(
     (req) => requestHandler(req),
     (err) => Promise.reject(err)
 );
+
+// Una sola renovación en curso: las peticiones que fallen mientras tanto esperan el mismo resultado,
+// porque reutilizar un refresh token ya rotado revoca toda la sesión
+let refreshing = null;
+
+// Otra pestaña comparte el refresh token y pudo renovarlo primero; el servidor rechaza el duplicado sin
+// revocar la sesión, así que se espera un momento a que esa pestaña guarde la sesión nueva
+const RENEWED_ELSEWHERE_WAIT_MS = 2000;
+
+const renewedByOtherTab = (usedRefreshToken) => new Promise((resolve) => {
+    const latestToken = () => {
+        const latest = JSON.parse(localStorage.getItem("user")) || null;
+        return latest?.refreshToken && latest.refreshToken !== usedRefreshToken ? latest.token : null;
+    };
+    const onStorage = () => {
+        const token = latestToken();
+        if (token) finish(token);
+    };
+    const timer = setTimeout(() => finish(latestToken()), RENEWED_ELSEWHERE_WAIT_MS);
+    const finish = (token) => {
+        clearTimeout(timer);
+        window.removeEventListener("storage", onStorage);
+        resolve(token);
+    };
+    window.addEventListener("storage", onStorage);
+    onStorage();
+});
+
+const refreshSession = () => {
+    if (!refreshing) {
+        const session = JSON.parse(localStorage.getItem("user")) || null;
+        refreshing = axios
+            .post(`${SERVER_URL}/auth/refresh`, { refreshToken: session?.refreshToken })
+            .then(({ data }) => {
+                const updated = { ...session, ...data.data, signed: true };
+                localStorage.setItem("user", JSON.stringify(updated));
+                return updated.token;
+            })
+            .catch(async (error) => {
+                const token = await renewedByOtherTab(session?.refreshToken);
+                if (token) return token;
+                throw error;
+            })
+            .finally(() => {
+                refreshing = null;
+            });
+    }
+    return refreshing;
+};
+
+const responseErrorHandler = async (err) => {
+    const original = err.config;
+    const status = err.response?.status;
+    const session = JSON.parse(localStorage.getItem("user")) || null;
+
+    // 401: access token vencido o inválido. Un 403 es falta de permisos y renovar no lo arregla
+    if (status === 401 && session?.refreshToken
+        && original && !original._retry && !original.url?.startsWith("/auth/")) {
+        original._retry = true;
+        try {
+            const token = await refreshSession();
+            original.headers["Authorization"] = `Bearer ${token}`;
+            return AxiosClient(original);
+        } catch (refreshError) {
+            // Sesión revocada o vencida: se vuelve al login
+            localStorage.removeItem("user");
+            window.location.href = "/";
+            return Promise.reject(refreshError);
+        }
+    }
+    return Promise.reject(err);
+};
+
 AxiosClient.interceptors.response.use(
     (res) => Promise.resolve(res.data),
-    (err) => Promise.reject(err)
+    (err) => responseErrorHandler(err)
 );
 export default AxiosClient;
\ No newline at end of file
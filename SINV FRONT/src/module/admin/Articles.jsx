@@ -76,7 +76,7 @@ const Articles = () => {
 
                 if (response.data) {
                     setArticles(prev => prev.map(a =>
-                        a.id === article.id ? { ...a, status: !a.status } : a
+                        a.id === article.id ? { ...a, status: !a.status, version: response.data.version } : a
                     ));
 
                     Swal.fire({
@@ -74,7 +74,7 @@ const Categories = () => {
 
                 if (response.data) {
                     setCategories(prev => prev.map(c =>
-                        c.id === category.id ? { ...c, status: !c.status } : c
+                        c.id === category.id ? { ...c, status: !c.status, version: response.data.version } : c
                     ));
 
                     Swal.fire({
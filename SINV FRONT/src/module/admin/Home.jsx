@@ -64,61 +64,21 @@ const Home = () => {
       try {
         setLoading(true);
         
-        // Fetch all APIs using AxiosClient
-        const [articlesRes, categoriesRes, storagesRes, usersRes] = await Promise.all([
-          AxiosClient({ url: "/articles/", method: "GET" }),
-          AxiosClient({ url: "/categories/", method: "GET" }),
-          AxiosClient({ url: "/storage/", method: "GET" }),
-          AxiosClient({ url: "/users/", method: "GET" })
-        ]);
-
-        // Process data
-        const articles = articlesRes.data || [];
-        const categories = categoriesRes.data || [];
-        const storages = storagesRes.data || [];
-        const users = usersRes.data || [];
-
-        // Calculate articles per category
-        const articlesByCategory = categories.map(category => ({
-          name: category.name,
-          count: articles.filter(article => article.category?.id === category.id).length
-        }));
-
-        // Calculate storages per category
-        const storagesByCategory = categories.map(category => ({
-          name: category.name,
-          count: storages.filter(storage => storage.category?.id === category.id).length
-        }));
-
-        // Calculate users per role
-        const usersByRole = {};
-        users.forEach(user => {
-          const roleName = user.role?.name || 'Sin rol';
-          usersByRole[roleName] = (usersByRole[roleName] || 0) + 1;
-        });
-
-        // Calculate empty storages
-        const emptyStorages = storages.filter(storage => storage.articles?.length === 0).length;
-
-        // Calculate assigned storages
-        const assignedStorages = storages.filter(storage => storage.responsible !== null).length;
-
-        // Get recent articles (last 5)
-        const recentArticles = [...articles]
-          .sort((a, b) => b.id - a.id)
-          .slice(0, 5);
+        // Las estadísticas se calculan en el servidor con consultas agregadas
+        const response = await AxiosClient({ url: "/dashboard/stats", method: "GET" });
+        const data = response.data || {};
 
         setStats({
-          totalArticles: articles.length,
-          totalCategories: categories.length,
-          totalStorages: storages.length,
-          totalUsers: users.length,
-          articlesPerCategory: articlesByCategory,
-          storagesPerCategory: storagesByCategory,
-          usersPerRole: Object.entries(usersByRole).map(([name, count]) => ({ name, count })),
-          recentArticles,
-          emptyStorages,
-          assignedStorages
+          totalArticles: data.totalArticles || 0,
+          totalCategories: data.totalCategories || 0,
+          totalStorages: data.totalStorages || 0,
+          totalUsers: data.totalUsers || 0,
+          articlesPerCategory: data.articlesPerCategory || [],
+          storagesPerCategory: data.storagesPerCategory || [],
+          usersPerRole: data.usersPerRole || [],
+          recentArticles: data.recentArticles || [],
+          emptyStorages: data.emptyStorages || 0,
+          assignedStorages: data.assignedStorages || 0
         });
 
       } catch (error) {
@@ -44,7 +44,7 @@ function Profile() {
                     });
                     
                     setUserData({
-                        data: response.data.data || storedUser.user,
+                        data: response.data || storedUser.user,
                         status: "OK",
                         error: false,
                         message: null
@@ -135,6 +135,7 @@ function Profile() {
                         id: userId,
                         email: sanitizeInput(values.email),
                         fullName: sanitizeInput(values.fullName),
+                        version: userData.data?.version,
                     };
 
                     await AxiosClient({
@@ -256,6 +257,7 @@ function Profile() {
                         password: values.newPassword,
                         email: userData.data?.email,
                         status: userData.data?.status,
+                        version: userData.data?.version,
                     };
 
                     await AxiosClient({
@@ -273,6 +275,8 @@ function Profile() {
                         color: '#ffffff',
                     });
                     changePasswordFormik.resetForm();
+                    // La contraseña nueva incrementa la versión del usuario
+                    setRefreshKey(prev => prev + 1);
                 } catch (error) {
                     console.error("Error:", error);
                     let errorMessage = 'Hubo un error al cambiar la contraseña.';
@@ -78,7 +78,7 @@ const Responsables = () => {
 
                 if (response.data) {
                     setUsers(prev => prev.map(u =>
-                        u.id === user.id ? { ...u, status: !u.status } : u
+                        u.id === user.id ? { ...u, status: !u.status, version: response.data.version } : u
                     ));
 
                     Swal.fire({
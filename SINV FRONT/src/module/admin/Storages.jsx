@@ -79,7 +79,7 @@ const Storages = () => {
 
                 if (response.data) {
                     setStorages(prev => prev.map(s =>
-                        s.id === storage.id ? { ...s, status: !s.status } : s
+                        s.id === storage.id ? { ...s, status: !s.status, version: response.data.version } : s
                     ));
 
                     Swal.fire({
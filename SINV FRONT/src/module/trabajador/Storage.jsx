@@ -310,7 +310,8 @@ const ArticleEditModal = ({ isOpen, onClose, onArticleUpdated, articleData, cate
                     description: formData.description,
                     status: formData.status,
                     categoryId: parseInt(formData.categoryId),
-                    storageIds: articleData.storageIds || []
+                    storageIds: articleData.storageIds || [],
+                    version: articleData.version
                 }
             });
 
@@ -527,7 +528,7 @@ const StorageEditModal = ({ isOpen, onClose, onStorageUpdated, storageData }) =>
                     status: formData.status,
                     categoryId: parseInt(formData.categoryId),
                     responsibleId: formData.responsibleId ? parseInt(formData.responsibleId) : null,
-                
+                    version: storageData.version
                 }
             });
 
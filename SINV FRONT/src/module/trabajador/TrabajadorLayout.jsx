@@ -10,6 +10,7 @@ import {
 } from "react-icons/fa";
 import { Spinner } from "flowbite-react";
 import NotFound from "../../components/NotFound";
+import AxiosClient from "../../config/http-gateway/http-client";
 
 const TrabajadorLayout = () => {
   const { dispatch, user } = useContext(AuthContext);
@@ -25,7 +26,8 @@ const TrabajadorLayout = () => {
   const signOut = async () => {
     setIsLoggingOut(true);
     try {
-      await new Promise(resolve => setTimeout(resolve, 1000));
+      // Revoca la sesión en el servidor (el refresh token vigente está en localStorage); si falla, igual se cierra en el navegador
+      await AxiosClient.post("/auth/logout", { refreshToken: JSON.parse(localStorage.getItem("user"))?.refreshToken }).catch(() => {});
       localStorage.clear();
       dispatch({ type: "SIGNOUT" });
       navigate("/");